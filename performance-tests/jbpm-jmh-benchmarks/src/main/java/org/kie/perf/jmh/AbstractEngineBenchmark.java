@@ -0,0 +1,76 @@
+package org.kie.perf.jmh;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.manager.RuntimeEngine;
+import org.kie.perf.jbpm.JBPMController;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Base of the engine benchmarks. Every combination of runtime manager strategy
+ * and persistence runs in its own fork, JBPMController is configured the same
+ * way as in jbpm-performance-tests scenarios. Worker threads own their
+ * RuntimeEngine so that PerRequest and PerProcessInstance engines are disposed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public abstract class AbstractEngineBenchmark {
+
+    @Param({ "Singleton", "PerProcessInstance", "PerRequest" })
+    public String strategy;
+
+    @Param({ "true", "false" })
+    public String persistence;
+
+    protected JBPMController jc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkConfig.configure(strategy, Boolean.valueOf(persistence));
+        jc = JBPMController.getInstance();
+        jc.setThreadOwnedEngines(true);
+        init(jc);
+        jc.createRuntimeManager(getResources());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jc.tearDown();
+    }
+
+    /**
+     * Registers listeners and handlers before the runtime manager is created.
+     */
+    protected void init(JBPMController jc) {
+
+    }
+
+    protected abstract Map<String, ResourceType> getResources();
+
+    protected RuntimeEngine getRuntimeEngine() {
+        return jc.getRuntimeEngine();
+    }
+
+    protected KieSession getKieSession() {
+        return getRuntimeEngine().getKieSession();
+    }
+
+}
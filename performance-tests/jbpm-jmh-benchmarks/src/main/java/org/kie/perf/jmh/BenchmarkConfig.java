@@ -0,0 +1,37 @@
+package org.kie.perf.jmh;
+
+/**
+ * Sets system properties read by JBPMTestConfig. Properties given on the
+ * command line (e.g. <code>-jvmArgsAppend -Djbpm.locking=pessimistic</code>)
+ * take precedence over the defaults, strategy and persistence always come from
+ * the benchmark parameters.
+ */
+public class BenchmarkConfig {
+
+    private BenchmarkConfig() {
+
+    }
+
+    public static void configure(String strategy, boolean persistence) {
+        System.setProperty("jbpm.runtimeManagerStrategy", strategy);
+        System.setProperty("jbpm.persistence", String.valueOf(persistence));
+        setDefault("databaseName", "H2");
+        setDefault("jbpm.locking", "optimistic");
+        setDefault("jbpm.concurrentUsersCount", "2");
+        setDefault("jbpm.ht.eager", "true");
+        setDefault("projectName", "BPM Suite");
+        setDefault("runType", "Iteration");
+        setDefault("iterations", "1");
+        setDefault("threads", "1");
+        setDefault("reporterType", "Console");
+        setDefault("periodicity", "5");
+        setDefault("reportDataLocation", "reportData");
+    }
+
+    private static void setDefault(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+
+}
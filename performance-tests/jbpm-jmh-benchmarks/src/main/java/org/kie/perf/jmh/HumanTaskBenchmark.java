@@ -0,0 +1,35 @@
+package org.kie.perf.jmh;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.manager.RuntimeEngine;
+import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.api.task.TaskService;
+import org.kie.perf.jbpm.constant.ProcessStorage;
+import org.kie.perf.jbpm.constant.UserStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+
+public class HumanTaskBenchmark extends AbstractEngineBenchmark {
+
+    @Override
+    protected Map<String, ResourceType> getResources() {
+        return Collections.singletonMap(ProcessStorage.HumanTask.getPath(), ResourceType.BPMN2);
+    }
+
+    @Benchmark
+    public long startProcessAndCompleteTask() {
+        RuntimeEngine runtimeEngine = getRuntimeEngine();
+        ProcessInstance pi = runtimeEngine.getKieSession().startProcess(ProcessStorage.HumanTask.getProcessDefinitionId());
+
+        TaskService taskService = runtimeEngine.getTaskService();
+        List<Long> tasks = taskService.getTasksByProcessInstanceId(pi.getId());
+        Long taskId = tasks.get(0);
+        taskService.start(taskId, UserStorage.PerfUser.getUserId());
+        taskService.complete(taskId, UserStorage.PerfUser.getUserId(), null);
+        return taskId;
+    }
+
+}
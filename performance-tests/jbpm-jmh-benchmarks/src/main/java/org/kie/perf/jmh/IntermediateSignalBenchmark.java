@@ -0,0 +1,27 @@
+package org.kie.perf.jmh;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.perf.jbpm.constant.ProcessStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+
+public class IntermediateSignalBenchmark extends AbstractEngineBenchmark {
+
+    @Override
+    protected Map<String, ResourceType> getResources() {
+        return Collections.singletonMap(ProcessStorage.IntermediateSignal.getPath(), ResourceType.BPMN2);
+    }
+
+    @Benchmark
+    public long startAndSignalProcess() {
+        KieSession ksession = getKieSession();
+        ProcessInstance pi = ksession.startProcess(ProcessStorage.IntermediateSignal.getProcessDefinitionId());
+        ksession.signalEvent("MySignal", "value", pi.getId());
+        return pi.getId();
+    }
+
+}
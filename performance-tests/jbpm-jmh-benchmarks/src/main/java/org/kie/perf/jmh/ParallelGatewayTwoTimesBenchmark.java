@@ -0,0 +1,23 @@
+package org.kie.perf.jmh;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.perf.jbpm.constant.ProcessStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+
+public class ParallelGatewayTwoTimesBenchmark extends AbstractEngineBenchmark {
+
+    @Override
+    protected Map<String, ResourceType> getResources() {
+        return Collections.singletonMap(ProcessStorage.ParallelGatewayTwoTimes.getPath(), ResourceType.BPMN2);
+    }
+
+    @Benchmark
+    public ProcessInstance startProcess() {
+        return getKieSession().startProcess(ProcessStorage.ParallelGatewayTwoTimes.getProcessDefinitionId());
+    }
+
+}
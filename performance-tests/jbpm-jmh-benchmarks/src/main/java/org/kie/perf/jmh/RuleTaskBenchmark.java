@@ -0,0 +1,30 @@
+package org.kie.perf.jmh;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.perf.jbpm.constant.ProcessStorage;
+import org.kie.perf.jbpm.constant.RuleStorage;
+import org.kie.perf.jbpm.model.UserFact;
+import org.openjdk.jmh.annotations.Benchmark;
+
+public class RuleTaskBenchmark extends AbstractEngineBenchmark {
+
+    @Override
+    protected Map<String, ResourceType> getResources() {
+        Map<String, ResourceType> res = new HashMap<String, ResourceType>();
+        res.put(ProcessStorage.RuleTask.getPath(), ResourceType.BPMN2);
+        res.put(RuleStorage.ValidationUserFact.getPath(), ResourceType.DRL);
+        return res;
+    }
+
+    @Benchmark
+    public ProcessInstance startProcess() {
+        Map<String, Object> params = new HashMap<String, Object>();
+        params.put("user", new UserFact("user", 15));
+        return getKieSession().startProcess(ProcessStorage.RuleTask.getProcessDefinitionId(), params);
+    }
+
+}
@@ -0,0 +1,23 @@
+package org.kie.perf.jmh;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.perf.jbpm.constant.ProcessStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+
+public class StartEndBenchmark extends AbstractEngineBenchmark {
+
+    @Override
+    protected Map<String, ResourceType> getResources() {
+        return Collections.singletonMap(ProcessStorage.StartEnd.getPath(), ResourceType.BPMN2);
+    }
+
+    @Benchmark
+    public ProcessInstance startProcess() {
+        return getKieSession().startProcess(ProcessStorage.StartEnd.getProcessDefinitionId());
+    }
+
+}
@@ -120,4 +120,144 @@ then
   PARAMS="$PARAMS -Djbpm.ht.eager=$jbpm_ht_eager"
 fi
 
+if [ -n "$jbpm_threadOwnedEngines" ]
+then
+  PARAMS="$PARAMS -Djbpm.threadOwnedEngines=$jbpm_threadOwnedEngines"
+fi
+
+if [ -n "$jbpm_threadCounts" ]
+then
+  PARAMS="$PARAMS -Djbpm.threadCounts=$jbpm_threadCounts"
+fi
+
+if [ -n "$jbpm_threadIterations" ]
+then
+  PARAMS="$PARAMS -Djbpm.threadIterations=$jbpm_threadIterations"
+fi
+
+if [ -n "$jbpm_openLoop_duration" ]
+then
+  PARAMS="$PARAMS -Djbpm.openLoop.duration=$jbpm_openLoop_duration"
+fi
+
+if [ -n "$jbpm_openLoop_workers" ]
+then
+  PARAMS="$PARAMS -Djbpm.openLoop.workers=$jbpm_openLoop_workers"
+fi
+
+if [ -n "$jbpm_hdrHistogram" ]
+then
+  PARAMS="$PARAMS -Djbpm.hdrHistogram=$jbpm_hdrHistogram"
+fi
+
+if [ -n "$jbpm_tasks_batchSize" ]
+then
+  PARAMS="$PARAMS -Djbpm.tasks.batchSize=$jbpm_tasks_batchSize"
+fi
+
+if [ -n "$jbpm_tasks_workers" ]
+then
+  PARAMS="$PARAMS -Djbpm.tasks.workers=$jbpm_tasks_workers"
+fi
+
+if [ -n "$jbpm_query_tasks" ]
+then
+  PARAMS="$PARAMS -Djbpm.query.tasks=$jbpm_query_tasks"
+fi
+
+if [ -n "$jbpm_query_users" ]
+then
+  PARAMS="$PARAMS -Djbpm.query.users=$jbpm_query_users"
+fi
+
+if [ -n "$jbpm_query_groups" ]
+then
+  PARAMS="$PARAMS -Djbpm.query.groups=$jbpm_query_groups"
+fi
+
+if [ -n "$jbpm_query_pageSize" ]
+then
+  PARAMS="$PARAMS -Djbpm.query.pageSize=$jbpm_query_pageSize"
+fi
+
+if [ -n "$jbpm_query_offsets" ]
+then
+  PARAMS="$PARAMS -Djbpm.query.offsets=$jbpm_query_offsets"
+fi
+
+if [ -n "$jbpm_query_orderBy" ]
+then
+  PARAMS="$PARAMS -Djbpm.query.orderBy=$jbpm_query_orderBy"
+fi
+
+if [ -n "$jbpm_query_ascending" ]
+then
+  PARAMS="$PARAMS -Djbpm.query.ascending=$jbpm_query_ascending"
+fi
+
+if [ -n "$jbpm_jdbc_instrumentation" ]
+then
+  PARAMS="$PARAMS -Djbpm.jdbc.instrumentation=$jbpm_jdbc_instrumentation"
+fi
+
+if [ -n "$jbpm_jdbc_topStatements" ]
+then
+  PARAMS="$PARAMS -Djbpm.jdbc.topStatements=$jbpm_jdbc_topStatements"
+fi
+
+if [ -n "$jbpm_jdbc_batchSize" ]
+then
+  PARAMS="$PARAMS -Djbpm.jdbc.batchSize=$jbpm_jdbc_batchSize"
+fi
+
+if [ -n "$jbpm_cache" ]
+then
+  PARAMS="$PARAMS -Djbpm.cache=$jbpm_cache"
+fi
+
+if [ -n "$jbpm_cache_entities" ]
+then
+  PARAMS="$PARAMS -Djbpm.cache.entities=$jbpm_cache_entities"
+fi
+
+if [ -n "$jbpm_cache_collections" ]
+then
+  PARAMS="$PARAMS -Djbpm.cache.collections=$jbpm_cache_collections"
+fi
+
+if [ -n "$jbpm_cache_usage" ]
+then
+  PARAMS="$PARAMS -Djbpm.cache.usage=$jbpm_cache_usage"
+fi
+
+if [ -n "$jbpm_timers_counts" ]
+then
+  PARAMS="$PARAMS -Djbpm.timers.counts=$jbpm_timers_counts"
+fi
+
+if [ -n "$jbpm_timers_delay" ]
+then
+  PARAMS="$PARAMS -Djbpm.timers.delay=$jbpm_timers_delay"
+fi
+
+if [ -n "$jbpm_timers_spread" ]
+then
+  PARAMS="$PARAMS -Djbpm.timers.spread=$jbpm_timers_spread"
+fi
+
+if [ -n "$jbpm_audit_mode" ]
+then
+  PARAMS="$PARAMS -Djbpm.audit.mode=$jbpm_audit_mode"
+fi
+
+if [ -n "$jbpm_audit_batchSize" ]
+then
+  PARAMS="$PARAMS -Djbpm.audit.batchSize=$jbpm_audit_batchSize"
+fi
+
+if [ -n "$jbpm_audit_queueCapacity" ]
+then
+  PARAMS="$PARAMS -Djbpm.audit.queueCapacity=$jbpm_audit_queueCapacity"
+fi
+
 mvn clean install exec:exec $PARAMS
@@ -1,18 +1,23 @@
 package org.kie.perf.jbpm;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.kie.api.task.UserGroupCallback;
 
 public class GeneratingUserGroupCallback implements UserGroupCallback {
 
+    private static final String ADMINISTRATOR = "Administrator";
+
     private final Set<String> users;
     private final Set<String> groups;
-    private final String originalGroup;
+    private final Map<String, List<String>> groupsOfUsers;
 
     public GeneratingUserGroupCallback(final String baseName, final String group, final int count) {
         if (count <= 0) {
@@ -27,14 +32,50 @@ public class GeneratingUserGroupCallback implements UserGroupCallback {
             throw new IllegalArgumentException("baseName must be non-empty string");
         }
 
-        originalGroup = group;
         groups = new HashSet<String>(2);
         groups.add(group);
         groups.add("Administrators");
 
-        users = new HashSet<String>(count + 1);
+        users = new LinkedHashSet<String>(count + 1);
+        groupsOfUsers = new HashMap<String, List<String>>(count + 1);
         for (int i = 0; i < count; i++) {
-            users.add(String.format("%s_%d", baseName, i));
+            String user = String.format("%s_%d", baseName, i);
+            users.add(user);
+            groupsOfUsers.put(user, Collections.singletonList(group));
+        }
+    }
+
+    /**
+     * Generates <code>userCount</code> users and <code>groupCount</code>
+     * groups, user <code>i</code> is member of group
+     * <code>i % groupCount</code>.
+     */
+    public GeneratingUserGroupCallback(final String baseName, final String groupBaseName, final int userCount,
+            final int groupCount) {
+        if (userCount <= 0 || groupCount <= 0) {
+            throw new IllegalArgumentException("userCount and groupCount must be positive integers");
+        }
+
+        if (isEmptyStr(groupBaseName)) {
+            throw new IllegalArgumentException("groupBaseName must be non-empty string");
+        }
+
+        if (isEmptyStr(baseName)) {
+            throw new IllegalArgumentException("baseName must be non-empty string");
+        }
+
+        groups = new LinkedHashSet<String>(groupCount + 1);
+        for (int i = 0; i < groupCount; i++) {
+            groups.add(String.format("%s_%d", groupBaseName, i));
+        }
+        groups.add("Administrators");
+
+        users = new LinkedHashSet<String>(userCount + 1);
+        groupsOfUsers = new HashMap<String, List<String>>(userCount + 1);
+        for (int i = 0; i < userCount; i++) {
+            String user = String.format("%s_%d", baseName, i);
+            users.add(user);
+            groupsOfUsers.put(user, Collections.singletonList(String.format("%s_%d", groupBaseName, i % groupCount)));
         }
     }
 
@@ -42,13 +83,17 @@ public class GeneratingUserGroupCallback implements UserGroupCallback {
         return Collections.unmodifiableSet(users);
     }
 
+    public Set<String> getGroups() {
+        return Collections.unmodifiableSet(groups);
+    }
+
     private boolean isEmptyStr(final String str) {
         return str == null || "".equals(str.trim());
     }
 
     @Override
     public boolean existsUser(String user) {
-        return users.contains(user);
+        return users.contains(user) || ADMINISTRATOR.equals(user);
     }
 
     @Override
@@ -60,7 +105,7 @@ public class GeneratingUserGroupCallback implements UserGroupCallback {
     public List<String> getGroupsForUser(String user, List<String> groupIds, List<String> allExistingGroupIds) {
         List<String> groupsForUser = new LinkedList<String>();
         if (users.contains(user)) {
-            groupsForUser.add(originalGroup);
+            groupsForUser.addAll(groupsOfUsers.get(user));
         }
         return groupsForUser;
     }
@@ -7,10 +7,12 @@ import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.Statement;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.naming.InitialContext;
 import javax.persistence.EntityManagerFactory;
@@ -19,6 +21,7 @@ import javax.transaction.Status;
 import javax.transaction.UserTransaction;
 
 import org.drools.persistence.jta.JtaTransactionManager;
+import org.jbpm.process.audit.AbstractAuditLogger;
 import org.jbpm.runtime.manager.impl.DefaultRegisterableItemsFactory;
 import org.jbpm.runtime.manager.impl.jpa.EntityManagerFactoryManager;
 import org.jbpm.services.task.identity.JBossUserGroupCallbackImpl;
@@ -37,6 +40,11 @@ import org.kie.api.task.UserGroupCallback;
 import org.kie.internal.io.ResourceFactory;
 import org.kie.internal.runtime.manager.context.EmptyContext;
 import org.kie.internal.runtime.manager.context.ProcessInstanceIdContext;
+import org.kie.perf.SharedMetricRegistry;
+import org.kie.perf.jbpm.JBPMTestConfig.AuditMode;
+import org.kie.perf.jbpm.cache.SecondLevelCache;
+import org.kie.perf.jbpm.jdbc.JdbcBatching;
+import org.kie.perf.jbpm.jdbc.JdbcInstrumentation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,10 +65,18 @@ public class JBPMController {
 
     private EntityManagerFactory emf;
     private PoolingDataSource ds;
+    private JdbcInstrumentation jdbcInstrumentation;
 
     private RuntimeManagerFactory managerFactory = RuntimeManagerFactory.Factory.get();
-    protected RuntimeManager manager;
-    protected Strategy strategy;
+    protected volatile RuntimeManager manager;
+    protected volatile Strategy strategy;
+
+    /**
+     * When enabled every worker thread owns the <code>RuntimeEngine</code> it
+     * obtained last, see {@link #getRuntimeEngine()}.
+     */
+    protected volatile boolean threadOwnedEngines;
+    private final Map<Thread, RuntimeEngine> ownedEngines = new ConcurrentHashMap<Thread, RuntimeEngine>();
 
     protected UserGroupCallback userGroupCallback = new JBossUserGroupCallbackImpl("classpath:/usergroups.properties");
 
@@ -74,9 +90,10 @@ public class JBPMController {
 
     private JBPMController() {
         persistence = JBPMTestConfig.getInstance().isPersistence();
+        threadOwnedEngines = JBPMTestConfig.getInstance().isThreadOwnedEngines();
     }
 
-    public static JBPMController getInstance() {
+    public static synchronized JBPMController getInstance() {
         if (instance == null) {
             instance = new JBPMController();
             try {
@@ -91,7 +108,21 @@ public class JBPMController {
     public void setUp() throws Exception {
         if (persistence) {
             ds = setupPoolingDataSource();
-            emf = Persistence.createEntityManagerFactory(persistenceUnitName);
+            Map<String, Object> emfProperties = new HashMap<String, Object>();
+            if (JBPMTestConfig.getInstance().isJdbcInstrumentation()) {
+                jdbcInstrumentation = JdbcInstrumentation.getInstance();
+                emfProperties.put("javax.persistence.jtaDataSource", jdbcInstrumentation.wrap(ds));
+            }
+            if (JBPMTestConfig.getInstance().getJdbcBatchSize() > 0) {
+                emfProperties.putAll(JdbcBatching.getPersistenceProperties(JBPMTestConfig.getInstance().getJdbcBatchSize()));
+            }
+            if (JBPMTestConfig.getInstance().isCache()) {
+                emfProperties.putAll(SecondLevelCache.getPersistenceProperties(JBPMTestConfig.getInstance()));
+            }
+            emf = Persistence.createEntityManagerFactory(persistenceUnitName, emfProperties);
+            if (JBPMTestConfig.getInstance().isCache()) {
+                SecondLevelCache.registerMetrics(emf, SharedMetricRegistry.getInstance());
+            }
             if (JBPMTestConfig.getInstance().getDatabaseName().equals("perfdb")) {
                 // clear tables in OracleDB
                 try {
@@ -130,12 +161,16 @@ public class JBPMController {
     public void clear() {
         clearCustomEntries();
         disposeRuntimeManager();
+        threadOwnedEngines = JBPMTestConfig.getInstance().isThreadOwnedEngines();
     }
 
     public void tearDown() {
         clear();
         if (persistence) {
             if (emf != null) {
+                if (JBPMTestConfig.getInstance().isCache()) {
+                    SecondLevelCache.report(emf);
+                }
                 emf.close();
                 emf = null;
                 EntityManagerFactoryManager.get().clear();
@@ -145,6 +180,10 @@ public class JBPMController {
                 ds.close();
                 ds = null;
             }
+            if (jdbcInstrumentation != null) {
+                jdbcInstrumentation.report();
+                jdbcInstrumentation = null;
+            }
             try {
                 InitialContext context = new InitialContext();
                 UserTransaction ut = (UserTransaction) context.lookup(
@@ -183,6 +222,49 @@ public class JBPMController {
         this.userGroupCallback = userGroupCallback;
     }
 
+    /**
+     * @return JDBC instrumentation of the engine datasource or null when
+     *         <code>jbpm.jdbc.instrumentation</code> is disabled
+     */
+    public JdbcInstrumentation getJdbcInstrumentation() {
+        return jdbcInstrumentation;
+    }
+
+    /**
+     * Called by scenarios from <code>initMetrics</code>, resets JDBC metrics
+     * (when <code>jbpm.jdbc.instrumentation</code> is enabled) and reports them
+     * under given scenario class.
+     */
+    public void startScenario(Class<?> scenario) {
+        if (jdbcInstrumentation != null) {
+            jdbcInstrumentation.startScenario(scenario);
+        }
+    }
+
+    /**
+     * Removes the built-in audit logger unless <code>jbpm.audit.mode</code> is
+     * <code>jpa</code>.
+     */
+    private static void removeDefaultAuditLogger(List<ProcessEventListener> listeners) {
+        if (JBPMTestConfig.getInstance().getAuditMode() == AuditMode.JPA) {
+            return;
+        }
+        Iterator<ProcessEventListener> it = listeners.iterator();
+        while (it.hasNext()) {
+            if (it.next() instanceof AbstractAuditLogger) {
+                it.remove();
+            }
+        }
+    }
+
+    public void setThreadOwnedEngines(boolean threadOwnedEngines) {
+        this.threadOwnedEngines = threadOwnedEngines;
+    }
+
+    public boolean isThreadOwnedEngines() {
+        return threadOwnedEngines;
+    }
+
     public void clearCustomEntries() {
         this.customAgendaListener = null;
         this.customHandlers.clear();
@@ -435,7 +517,7 @@ public class JBPMController {
      *            - identifies the runtime manager
      * @return new instance of RuntimeManager
      */
-    protected RuntimeManager createRuntimeManager(Strategy strategy, Map<String, ResourceType> resources,
+    protected synchronized RuntimeManager createRuntimeManager(Strategy strategy, Map<String, ResourceType> resources,
             String identifier) {
         if (manager != null) {
             return manager;
@@ -457,6 +539,7 @@ public class JBPMController {
                         @Override
                         public List<ProcessEventListener> getProcessEventListeners(RuntimeEngine runtime) {
                             List<ProcessEventListener> listeners = super.getProcessEventListeners(runtime);
+                            removeDefaultAuditLogger(listeners);
                             if (customProcessListener != null) {
                                 listeners.add(customProcessListener);
                             }
@@ -497,6 +580,7 @@ public class JBPMController {
                         @Override
                         public List<ProcessEventListener> getProcessEventListeners(RuntimeEngine runtime) {
                             List<ProcessEventListener> listeners = super.getProcessEventListeners(runtime);
+                            removeDefaultAuditLogger(listeners);
                             if (customProcessListener != null) {
                                 listeners.add(customProcessListener);
                             }
@@ -558,7 +642,7 @@ public class JBPMController {
      *            - identifies the runtime manager
      * @return new instance of RuntimeManager
      */
-    protected RuntimeManager createRuntimeManager(Strategy strategy, Map<String, ResourceType> resources,
+    protected synchronized RuntimeManager createRuntimeManager(Strategy strategy, Map<String, ResourceType> resources,
             RuntimeEnvironment environment, String identifier) {
         if (manager != null) {
             return manager;
@@ -603,7 +687,54 @@ public class JBPMController {
         return getRuntimeEngine(null);
     }
 
+    /**
+     * Returns <code>RuntimeEngine</code> for given process instance or a new
+     * one when <code>pid</code> is null. <br/>
+     * In thread owned mode a new engine (<code>pid</code> is null) belongs to
+     * the calling thread. SINGLETON engine is kept for the whole life of the
+     * thread, PERREQUEST and PERPROCESSINSTANCE engines are disposed as soon as
+     * the same thread asks for another one or calls
+     * {@link #releaseRuntimeEngine()}. That way no engine is ever shared
+     * between threads and none of them leaks.
+     * 
+     * @param pid
+     *            - process instance id or null
+     * @return runtime engine
+     */
     public RuntimeEngine getRuntimeEngine(Long pid) {
+        if (threadOwnedEngines && pid == null) {
+            return getOwnedRuntimeEngine();
+        }
+        return newRuntimeEngine(pid);
+    }
+
+    /**
+     * Disposes the <code>RuntimeEngine</code> owned by the calling thread, if
+     * any.
+     */
+    public void releaseRuntimeEngine() {
+        RuntimeEngine engine = ownedEngines.remove(Thread.currentThread());
+        RuntimeManager current = manager;
+        if (engine != null && current != null) {
+            current.disposeRuntimeEngine(engine);
+        }
+    }
+
+    protected RuntimeEngine getOwnedRuntimeEngine() {
+        Thread owner = Thread.currentThread();
+        RuntimeEngine engine = ownedEngines.get(owner);
+        if (engine != null) {
+            if (strategy == Strategy.SINGLETON) {
+                return engine;
+            }
+            manager.disposeRuntimeEngine(engine);
+        }
+        engine = newRuntimeEngine(null);
+        ownedEngines.put(owner, engine);
+        return engine;
+    }
+
+    private RuntimeEngine newRuntimeEngine(Long pid) {
         if (strategy == Strategy.PERPROCESSINSTANCE) {
             if (pid == null) {
                 return manager.getRuntimeEngine(ProcessInstanceIdContext.get());
@@ -617,8 +748,16 @@ public class JBPMController {
         return emf;
     }
 
-    public void disposeRuntimeManager() {
+    public synchronized void disposeRuntimeManager() {
         if (manager != null) {
+            for (RuntimeEngine engine : ownedEngines.values()) {
+                try {
+                    manager.disposeRuntimeEngine(engine);
+                } catch (Exception ex) {
+                    log.debug("Unable to dispose runtime engine: {}", ex.getMessage());
+                }
+            }
+            ownedEngines.clear();
             manager.close();
             manager = null;
         }
@@ -3,9 +3,19 @@ package org.kie.perf.jbpm;
 import java.util.Properties;
 
 import org.kie.perf.TestConfig;
+import org.kie.perf.jbpm.cache.SecondLevelCache;
 
 public class JBPMTestConfig extends TestConfig {
 
+    /**
+     * How process audit logs are written: by the built-in JPA audit logger in
+     * the engine transaction, by {@link org.kie.perf.jbpm.audit.AsyncAuditLogger}
+     * in background batches, or not at all.
+     */
+    public enum AuditMode {
+        JPA, ASYNC, NONE;
+    }
+
     protected String runtimeManagerStrategy;
 
     protected boolean persistence;
@@ -16,6 +26,68 @@ public class JBPMTestConfig extends TestConfig {
 
     protected boolean humanTaskEager;
 
+    protected boolean threadOwnedEngines;
+
+    protected int[] threadCounts;
+
+    protected int threadIterations;
+
+    protected int openLoopRate;
+
+    protected int openLoopDuration;
+
+    protected int openLoopWorkers;
+
+    protected boolean hdrHistogram;
+
+    protected int taskBatchSize;
+
+    protected int taskWorkers;
+
+    protected int queryTasks;
+
+    protected int queryUsers;
+
+    protected int queryGroups;
+
+    protected int queryPageSize;
+
+    protected int[] queryOffsets;
+
+    protected String queryOrderBy;
+
+    protected boolean queryAscending;
+
+    protected boolean jdbcInstrumentation;
+
+    protected int jdbcTopStatements;
+
+    protected int jdbcBatchSize;
+
+    protected boolean cache;
+
+    protected String[] cacheEntities;
+
+    protected String[] cacheCollections;
+
+    protected String cacheUsage;
+
+    protected int[] timerCounts;
+
+    protected int timerDelay;
+
+    protected int timerSpread;
+
+    protected AuditMode auditMode;
+
+    protected int auditBatchSize;
+
+    protected int auditQueueCapacity;
+
+    protected String hdrHistogramLogLocation;
+
+    protected int hdrHistogramLogPeriod;
+
     protected JBPMTestConfig() {
 
     }
@@ -57,9 +129,152 @@ public class JBPMTestConfig extends TestConfig {
         humanTaskEager = Boolean.valueOf(System.getProperty("jbpm.ht.eager"));
         properties.put("jbpm.ht.eager", humanTaskEager);
 
+        threadOwnedEngines = Boolean.valueOf(System.getProperty("jbpm.threadOwnedEngines"));
+        properties.put("jbpm.threadOwnedEngines", threadOwnedEngines);
+
+        String counts = System.getProperty("jbpm.threadCounts", "1,2,4,8");
+        threadCounts = parseInts(counts);
+        properties.put("jbpm.threadCounts", counts);
+
+        threadIterations = Integer.valueOf(System.getProperty("jbpm.threadIterations", "100"));
+        properties.put("jbpm.threadIterations", threadIterations);
+
+        openLoopRate = Integer.valueOf(System.getProperty("expectedRate", "30"));
+
+        openLoopDuration = Integer.valueOf(System.getProperty("jbpm.openLoop.duration", "60"));
+        properties.put("jbpm.openLoop.duration", openLoopDuration);
+
+        openLoopWorkers = Integer.valueOf(System.getProperty("jbpm.openLoop.workers", "4"));
+        properties.put("jbpm.openLoop.workers", openLoopWorkers);
+
+        hdrHistogram = Boolean.valueOf(System.getProperty("jbpm.hdrHistogram"));
+        properties.put("jbpm.hdrHistogram", hdrHistogram);
+        hdrHistogramLogLocation = System.getProperty("reportDataLocation", "reportData");
+        hdrHistogramLogPeriod = Integer.valueOf(System.getProperty("periodicity", "5"));
+
+        taskBatchSize = Integer.valueOf(System.getProperty("jbpm.tasks.batchSize", "1000"));
+        properties.put("jbpm.tasks.batchSize", taskBatchSize);
+
+        taskWorkers = Integer.valueOf(System.getProperty("jbpm.tasks.workers", "1"));
+        properties.put("jbpm.tasks.workers", taskWorkers);
+
+        queryTasks = Integer.valueOf(System.getProperty("jbpm.query.tasks", "10000"));
+        properties.put("jbpm.query.tasks", queryTasks);
+
+        queryUsers = Integer.valueOf(System.getProperty("jbpm.query.users", "10"));
+        properties.put("jbpm.query.users", queryUsers);
+
+        queryGroups = Integer.valueOf(System.getProperty("jbpm.query.groups", "5"));
+        properties.put("jbpm.query.groups", queryGroups);
+
+        queryPageSize = Integer.valueOf(System.getProperty("jbpm.query.pageSize", "100"));
+        properties.put("jbpm.query.pageSize", queryPageSize);
+
+        String offsets = System.getProperty("jbpm.query.offsets", "0,10%,50%,90%");
+        queryOffsets = parseOffsets(offsets, queryTasks / Math.max(1, queryUsers + queryGroups));
+        properties.put("jbpm.query.offsets", offsets);
+        if (System.getProperty("scenario", "").startsWith("LTaskQuery")) {
+            addTag("tasks" + queryTasks);
+        }
+
+        queryOrderBy = System.getProperty("jbpm.query.orderBy", "");
+        properties.put("jbpm.query.orderBy", queryOrderBy);
+
+        queryAscending = Boolean.valueOf(System.getProperty("jbpm.query.ascending", "true"));
+        properties.put("jbpm.query.ascending", queryAscending);
+
+        jdbcInstrumentation = Boolean.valueOf(System.getProperty("jbpm.jdbc.instrumentation"));
+        properties.put("jbpm.jdbc.instrumentation", jdbcInstrumentation);
+
+        jdbcTopStatements = Integer.valueOf(System.getProperty("jbpm.jdbc.topStatements", "10"));
+        properties.put("jbpm.jdbc.topStatements", jdbcTopStatements);
+
+        jdbcBatchSize = Integer.valueOf(System.getProperty("jbpm.jdbc.batchSize", "0"));
+        properties.put("jbpm.jdbc.batchSize", jdbcBatchSize);
+        if (jdbcBatchSize > 0) {
+            addTag("jdbcBatch" + jdbcBatchSize);
+        }
+
+        cache = Boolean.valueOf(System.getProperty("jbpm.cache"));
+        properties.put("jbpm.cache", cache);
+        if (cache) {
+            addTag("cache");
+        }
+
+        String entities = System.getProperty("jbpm.cache.entities", SecondLevelCache.DEFAULT_ENTITIES);
+        cacheEntities = parseStrings(entities);
+        properties.put("jbpm.cache.entities", entities);
+
+        String collections = System.getProperty("jbpm.cache.collections", SecondLevelCache.DEFAULT_COLLECTIONS);
+        cacheCollections = parseStrings(collections);
+        properties.put("jbpm.cache.collections", collections);
+
+        cacheUsage = System.getProperty("jbpm.cache.usage", "read-write");
+        properties.put("jbpm.cache.usage", cacheUsage);
+
+        String timers = System.getProperty("jbpm.timers.counts", "1000");
+        timerCounts = parseInts(timers);
+        properties.put("jbpm.timers.counts", timers);
+
+        timerDelay = Integer.valueOf(System.getProperty("jbpm.timers.delay", "10000"));
+        properties.put("jbpm.timers.delay", timerDelay);
+
+        timerSpread = Integer.valueOf(System.getProperty("jbpm.timers.spread", "0"));
+        properties.put("jbpm.timers.spread", timerSpread);
+
+        auditMode = AuditMode.valueOf(System.getProperty("jbpm.audit.mode", "jpa").toUpperCase());
+        properties.put("jbpm.audit.mode", auditMode);
+        if (auditMode != AuditMode.JPA) {
+            addTag("audit" + auditMode);
+        }
+
+        auditBatchSize = Integer.valueOf(System.getProperty("jbpm.audit.batchSize", "100"));
+        properties.put("jbpm.audit.batchSize", auditBatchSize);
+
+        auditQueueCapacity = Integer.valueOf(System.getProperty("jbpm.audit.queueCapacity", "10000"));
+        properties.put("jbpm.audit.queueCapacity", auditQueueCapacity);
+
         return properties;
     }
 
+    private static String[] parseStrings(String list) {
+        if (list.trim().isEmpty()) {
+            return new String[0];
+        }
+        String[] values = list.split(",");
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = values[i].trim();
+        }
+        return values;
+    }
+
+    private static int[] parseInts(String list) {
+        String[] values = list.split(",");
+        int[] result = new int[values.length];
+        for (int i = 0; i < values.length; ++i) {
+            result[i] = Integer.valueOf(values[i].trim());
+        }
+        return result;
+    }
+
+    /**
+     * Parses offsets, values ending with <code>%</code> are percentages of the
+     * tasks per user.
+     */
+    private static int[] parseOffsets(String list, int tasksPerUser) {
+        String[] values = list.split(",");
+        int[] result = new int[values.length];
+        for (int i = 0; i < values.length; ++i) {
+            String value = values[i].trim();
+            if (value.endsWith("%")) {
+                result[i] = (int) ((long) tasksPerUser * Integer.valueOf(value.substring(0, value.length() - 1).trim()) / 100);
+            } else {
+                result[i] = Integer.valueOf(value);
+            }
+        }
+        return result;
+    }
+
     public String getRuntimeManagerStrategy() {
         return runtimeManagerStrategy;
     }
@@ -80,4 +295,128 @@ public class JBPMTestConfig extends TestConfig {
         return humanTaskEager;
     }
 
+    public boolean isThreadOwnedEngines() {
+        return threadOwnedEngines;
+    }
+
+    public int[] getThreadCounts() {
+        return threadCounts;
+    }
+
+    public int getThreadIterations() {
+        return threadIterations;
+    }
+
+    public int getOpenLoopRate() {
+        return openLoopRate;
+    }
+
+    public int getOpenLoopDuration() {
+        return openLoopDuration;
+    }
+
+    public int getOpenLoopWorkers() {
+        return openLoopWorkers;
+    }
+
+    public boolean isHdrHistogram() {
+        return hdrHistogram;
+    }
+
+    public int getTaskBatchSize() {
+        return taskBatchSize;
+    }
+
+    public int getTaskWorkers() {
+        return taskWorkers;
+    }
+
+    public int getQueryTasks() {
+        return queryTasks;
+    }
+
+    public int getQueryUsers() {
+        return queryUsers;
+    }
+
+    public int getQueryGroups() {
+        return queryGroups;
+    }
+
+    public int getQueryPageSize() {
+        return queryPageSize;
+    }
+
+    public int[] getQueryOffsets() {
+        return queryOffsets;
+    }
+
+    public String getQueryOrderBy() {
+        return queryOrderBy;
+    }
+
+    public boolean isQueryAscending() {
+        return queryAscending;
+    }
+
+    public boolean isJdbcInstrumentation() {
+        return jdbcInstrumentation;
+    }
+
+    public int getJdbcTopStatements() {
+        return jdbcTopStatements;
+    }
+
+    public int getJdbcBatchSize() {
+        return jdbcBatchSize;
+    }
+
+    public int[] getTimerCounts() {
+        return timerCounts;
+    }
+
+    public int getTimerDelay() {
+        return timerDelay;
+    }
+
+    public int getTimerSpread() {
+        return timerSpread;
+    }
+
+    public AuditMode getAuditMode() {
+        return auditMode;
+    }
+
+    public int getAuditBatchSize() {
+        return auditBatchSize;
+    }
+
+    public int getAuditQueueCapacity() {
+        return auditQueueCapacity;
+    }
+
+    public boolean isCache() {
+        return cache;
+    }
+
+    public String[] getCacheEntities() {
+        return cacheEntities;
+    }
+
+    public String[] getCacheCollections() {
+        return cacheCollections;
+    }
+
+    public String getCacheUsage() {
+        return cacheUsage;
+    }
+
+    public String getHdrHistogramLogLocation() {
+        return hdrHistogramLogLocation;
+    }
+
+    public int getHdrHistogramLogPeriod() {
+        return hdrHistogramLogPeriod;
+    }
+
 }
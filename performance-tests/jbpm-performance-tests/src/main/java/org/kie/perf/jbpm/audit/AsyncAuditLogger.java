@@ -0,0 +1,263 @@
+package org.kie.perf.jbpm.audit;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.naming.InitialContext;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.transaction.Status;
+import javax.transaction.UserTransaction;
+
+import org.drools.persistence.jta.JtaTransactionManager;
+import org.jbpm.process.audit.ProcessInstanceLog;
+import org.jbpm.process.audit.event.AuditEventBuilder;
+import org.jbpm.process.audit.event.DefaultAuditEventBuilderImpl;
+import org.jbpm.process.instance.impl.ProcessInstanceImpl;
+import org.kie.api.event.process.DefaultProcessEventListener;
+import org.kie.api.event.process.ProcessCompletedEvent;
+import org.kie.api.event.process.ProcessNodeLeftEvent;
+import org.kie.api.event.process.ProcessNodeTriggeredEvent;
+import org.kie.api.event.process.ProcessStartedEvent;
+import org.kie.api.event.process.ProcessVariableChangedEvent;
+import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.perf.jbpm.jdbc.JdbcInstrumentation;
+import org.kie.perf.jbpm.metrics.HdrTimers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Audit logger writing <code>ProcessInstanceLog</code>,
+ * <code>NodeInstanceLog</code> and <code>VariableInstanceLog</code> entries
+ * outside of the engine transaction. Audit entities are built by the default
+ * jBPM audit event builder when the event is fired, put into a bounded
+ * lock-free queue and persisted in batches (one transaction per batch) by a
+ * background writer thread. When the queue is full the engine thread waits
+ * until the writer catches up.
+ * <p>
+ * Unlike the JPA audit logger the entries are written even if the engine
+ * transaction rolls back, so this is meant for measuring the cost of
+ * synchronous audit only.
+ * <p>
+ * Statements of the writer thread are excluded from the engine statement
+ * count of JDBC instrumentation, see
+ * {@link JdbcInstrumentation#excludeCurrentThread()}.
+ */
+public class AsyncAuditLogger extends DefaultProcessEventListener {
+
+    protected static final Logger log = LoggerFactory.getLogger(AsyncAuditLogger.class);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final EntityManagerFactory emf;
+    private final int batchSize;
+    private final int capacity;
+
+    private final AuditEventBuilder builder = new DefaultAuditEventBuilderImpl();
+    private final ConcurrentLinkedQueue<Object> queue = new ConcurrentLinkedQueue<Object>();
+    private final AtomicInteger queueSize = new AtomicInteger();
+
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private Timer flushDuration;
+    private Histogram flushedBatchSize;
+    private Counter producerWaits;
+
+    public AsyncAuditLogger(EntityManagerFactory emf, int batchSize, int capacity) {
+        this.emf = emf;
+        this.batchSize = batchSize;
+        this.capacity = capacity;
+        this.writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeLoop();
+            }
+        }, "async-audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void registerMetrics(MetricRegistry metrics) {
+        flushDuration = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(AsyncAuditLogger.class, "audit.flush.duration"));
+        flushedBatchSize = metrics.histogram(MetricRegistry.name(AsyncAuditLogger.class, "audit.flush.size"));
+        producerWaits = metrics.counter(MetricRegistry.name(AsyncAuditLogger.class, "audit.queue.full"));
+        String queueSizeName = MetricRegistry.name(AsyncAuditLogger.class, "audit.queue.size");
+        metrics.remove(queueSizeName);
+        metrics.register(queueSizeName, new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return queueSize.get();
+            }
+        });
+    }
+
+    @Override
+    public void beforeProcessStarted(ProcessStartedEvent event) {
+        enqueue(builder.buildEvent(event));
+    }
+
+    @Override
+    public void afterProcessCompleted(ProcessCompletedEvent event) {
+        ProcessInstance pi = event.getProcessInstance();
+        String outcome = pi instanceof ProcessInstanceImpl ? ((ProcessInstanceImpl) pi).getOutcome() : null;
+        enqueue(new ProcessCompletion(pi.getId(), pi.getState(), new Date(), outcome));
+    }
+
+    @Override
+    public void beforeNodeTriggered(ProcessNodeTriggeredEvent event) {
+        enqueue(builder.buildEvent(event));
+    }
+
+    @Override
+    public void beforeNodeLeft(ProcessNodeLeftEvent event) {
+        enqueue(builder.buildEvent(event, null));
+    }
+
+    @Override
+    public void afterVariableChanged(ProcessVariableChangedEvent event) {
+        enqueue(builder.buildEvent(event));
+    }
+
+    /**
+     * Stops accepting events and waits until all queued entries are written.
+     */
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enqueue(Object entry) {
+        if (entry == null) {
+            return;
+        }
+        while (true) {
+            int size = queueSize.get();
+            if (size >= capacity) {
+                if (producerWaits != null) {
+                    producerWaits.inc();
+                }
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            } else if (queueSize.compareAndSet(size, size + 1)) {
+                break;
+            }
+        }
+        queue.offer(entry);
+    }
+
+    private void writeLoop() {
+        JdbcInstrumentation.excludeCurrentThread();
+        List<Object> batch = new ArrayList<Object>(batchSize);
+        while (true) {
+            Object entry;
+            while (batch.size() < batchSize && (entry = queue.poll()) != null) {
+                batch.add(entry);
+            }
+            if (batch.isEmpty()) {
+                if (!running && queueSize.get() == 0) {
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            queueSize.addAndGet(-batch.size());
+            try {
+                write(batch);
+            } catch (Exception e) {
+                log.error("Unable to write " + batch.size() + " audit entries", e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(List<Object> batch) throws Exception {
+        Timer.Context context = flushDuration != null ? flushDuration.time() : null;
+        UserTransaction ut = (UserTransaction) new InitialContext().lookup(JtaTransactionManager.DEFAULT_USER_TRANSACTION_NAME);
+        ut.begin();
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.joinTransaction();
+            Map<Long, ProcessInstanceLog> started = new HashMap<Long, ProcessInstanceLog>();
+            for (Object entry : batch) {
+                if (entry instanceof ProcessCompletion) {
+                    ((ProcessCompletion) entry).apply(em, started);
+                } else {
+                    em.persist(entry);
+                    if (entry instanceof ProcessInstanceLog) {
+                        ProcessInstanceLog pil = (ProcessInstanceLog) entry;
+                        started.put(pil.getProcessInstanceId(), pil);
+                    }
+                }
+            }
+            ut.commit();
+        } catch (Exception ex) {
+            if (ut.getStatus() != Status.STATUS_NO_TRANSACTION) {
+                ut.rollback();
+            }
+            throw ex;
+        } finally {
+            em.close();
+        }
+        if (context != null) {
+            context.stop();
+            flushedBatchSize.update(batch.size());
+        }
+    }
+
+    /**
+     * Completion of a process instance, updates its <code>ProcessInstanceLog</code>.
+     */
+    private static class ProcessCompletion {
+
+        private final long processInstanceId;
+        private final int state;
+        private final Date end;
+        private final String outcome;
+
+        private ProcessCompletion(long processInstanceId, int state, Date end, String outcome) {
+            this.processInstanceId = processInstanceId;
+            this.state = state;
+            this.end = end;
+            this.outcome = outcome;
+        }
+
+        private void apply(EntityManager em, Map<Long, ProcessInstanceLog> started) {
+            ProcessInstanceLog pil = started.get(processInstanceId);
+            if (pil == null) {
+                List<?> result = em.createQuery("FROM ProcessInstanceLog WHERE processInstanceId = :piId")
+                        .setParameter("piId", processInstanceId).getResultList();
+                if (result.isEmpty()) {
+                    log.warn("No process instance log found for completed process instance {}", processInstanceId);
+                    return;
+                }
+                pil = (ProcessInstanceLog) result.get(0);
+            }
+            pil.setStatus(state);
+            pil.setEnd(end);
+            pil.setOutcome(outcome);
+            if (pil.getStart() != null) {
+                pil.setDuration(end.getTime() - pil.getStart().getTime());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+package org.kie.perf.jbpm.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.ejb.HibernateEntityManagerFactory;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.hibernate.stat.Statistics;
+import org.kie.perf.jbpm.JBPMTestConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * Hibernate second-level cache mode of the harness. When
+ * <code>jbpm.cache</code> is enabled the entities from
+ * <code>jbpm.cache.entities</code> and collections from
+ * <code>jbpm.cache.collections</code> are cached in a local EhCache
+ * (eviction configured in <code>jbpm-ehcache.xml</code>) and hits, misses and
+ * puts of every cache region are registered as gauges. The query cache is not
+ * enabled as the jBPM task and audit queries are not cacheable.
+ */
+public class SecondLevelCache {
+
+    protected static final Logger log = LoggerFactory.getLogger(SecondLevelCache.class);
+
+    public static final String EHCACHE_CONFIGURATION = "/jbpm-ehcache.xml";
+
+    public static final String DEFAULT_ENTITIES = "org.jbpm.services.task.impl.model.TaskImpl,"
+            + "org.jbpm.services.task.impl.model.I18NTextImpl,"
+            + "org.jbpm.services.task.impl.model.OrganizationalEntityImpl,"
+            + "org.jbpm.runtime.manager.impl.jpa.ContextMappingInfo";
+
+    public static final String DEFAULT_COLLECTIONS = "org.jbpm.services.task.impl.model.TaskImpl.names,"
+            + "org.jbpm.services.task.impl.model.TaskImpl.subjects,"
+            + "org.jbpm.services.task.impl.model.TaskImpl.descriptions,"
+            + "org.jbpm.services.task.impl.model.TaskImpl.peopleAssignments.potentialOwners,"
+            + "org.jbpm.services.task.impl.model.TaskImpl.peopleAssignments.businessAdministrators";
+
+    private SecondLevelCache() {
+
+    }
+
+    /**
+     * Returns the persistence unit properties enabling the caches.
+     */
+    public static Map<String, Object> getPersistenceProperties(JBPMTestConfig tc) {
+        Map<String, Object> props = new HashMap<String, Object>();
+        props.put("hibernate.cache.use_second_level_cache", "true");
+        props.put("hibernate.cache.region.factory_class", "org.hibernate.cache.ehcache.EhCacheRegionFactory");
+        props.put("net.sf.ehcache.configurationResourceName", EHCACHE_CONFIGURATION);
+        props.put("hibernate.generate_statistics", "true");
+        for (String entity : tc.getCacheEntities()) {
+            props.put("hibernate.ejb.classcache." + entity, tc.getCacheUsage());
+        }
+        for (String collection : tc.getCacheCollections()) {
+            props.put("hibernate.ejb.collectioncache." + collection, tc.getCacheUsage());
+        }
+        return props;
+    }
+
+    /**
+     * Registers hit, miss and put counts of all second-level cache regions.
+     */
+    public static void registerMetrics(EntityManagerFactory emf, MetricRegistry metrics) {
+        final Statistics statistics = getStatistics(emf);
+        for (final String region : statistics.getSecondLevelCacheRegionNames()) {
+            register(metrics, MetricRegistry.name(SecondLevelCache.class, "cache", region, "hits"), new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return statistics.getSecondLevelCacheStatistics(region).getHitCount();
+                }
+            });
+            register(metrics, MetricRegistry.name(SecondLevelCache.class, "cache", region, "misses"), new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return statistics.getSecondLevelCacheStatistics(region).getMissCount();
+                }
+            });
+            register(metrics, MetricRegistry.name(SecondLevelCache.class, "cache", region, "puts"), new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return statistics.getSecondLevelCacheStatistics(region).getPutCount();
+                }
+            });
+            register(metrics, MetricRegistry.name(SecondLevelCache.class, "cache", region, "elements"), new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return statistics.getSecondLevelCacheStatistics(region).getElementCountInMemory();
+                }
+            });
+        }
+    }
+
+    /**
+     * Logs hit ratio of every cache region.
+     */
+    public static void report(EntityManagerFactory emf) {
+        Statistics statistics = getStatistics(emf);
+        StringBuilder sb = new StringBuilder("Second-level cache regions:");
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            SecondLevelCacheStatistics regionStatistics = statistics.getSecondLevelCacheStatistics(region);
+            appendRegion(sb, region, regionStatistics.getHitCount(), regionStatistics.getMissCount(), regionStatistics.getPutCount());
+        }
+        log.info(sb.toString());
+    }
+
+    private static void appendRegion(StringBuilder sb, String region, long hits, long misses, long puts) {
+        long lookups = hits + misses;
+        double ratio = lookups == 0 ? 0 : hits * 100.0 / lookups;
+        sb.append(String.format("%n  %s: %d hits, %d misses (%.1f %% hit ratio), %d puts", region, hits, misses, ratio, puts));
+    }
+
+    private static Statistics getStatistics(EntityManagerFactory emf) {
+        return ((HibernateEntityManagerFactory) emf).getSessionFactory().getStatistics();
+    }
+
+    private static void register(MetricRegistry metrics, String name, Gauge<Long> gauge) {
+        metrics.remove(name);
+        metrics.register(name, gauge);
+    }
+
+}
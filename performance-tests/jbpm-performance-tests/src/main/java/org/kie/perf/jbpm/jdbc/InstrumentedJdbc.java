@@ -0,0 +1,181 @@
+package org.kie.perf.jbpm.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+/**
+ * Dynamic proxies of JDBC objects reporting statement executions and fetched
+ * rows to {@link JdbcInstrumentation}.
+ */
+class InstrumentedJdbc {
+
+    private InstrumentedJdbc() {
+
+    }
+
+    static DataSource wrap(DataSource dataSource, JdbcInstrumentation instrumentation) {
+        return proxy(DataSource.class, new DataSourceHandler(dataSource, instrumentation));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, DelegatingHandler handler) {
+        return (T) Proxy.newProxyInstance(InstrumentedJdbc.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private abstract static class DelegatingHandler implements InvocationHandler {
+
+        protected final Object delegate;
+        protected final JdbcInstrumentation instrumentation;
+
+        protected DelegatingHandler(Object delegate, JdbcInstrumentation instrumentation) {
+            this.delegate = delegate;
+            this.instrumentation = instrumentation;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("unwrap") && args != null && ((Class<?>) args[0]).isInstance(delegate)) {
+                return delegate;
+            }
+            if (name.equals("isWrapperFor") && args != null && ((Class<?>) args[0]).isInstance(delegate)) {
+                return true;
+            }
+            if (name.equals("equals") && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode") && args == null) {
+                return System.identityHashCode(proxy);
+            }
+            return handle(method, args);
+        }
+
+        protected abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        protected Object delegate(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static class DataSourceHandler extends DelegatingHandler {
+
+        private DataSourceHandler(DataSource delegate, JdbcInstrumentation instrumentation) {
+            super(delegate, instrumentation);
+        }
+
+        @Override
+        protected Object handle(Method method, Object[] args) throws Throwable {
+            Object result = delegate(method, args);
+            if (method.getName().equals("getConnection")) {
+                return proxy(Connection.class, new ConnectionHandler((Connection) result, instrumentation));
+            }
+            return result;
+        }
+    }
+
+    private static class ConnectionHandler extends DelegatingHandler {
+
+        private ConnectionHandler(Connection delegate, JdbcInstrumentation instrumentation) {
+            super(delegate, instrumentation);
+        }
+
+        @Override
+        protected Object handle(Method method, Object[] args) throws Throwable {
+            Object result = delegate(method, args);
+            String name = method.getName();
+            if (name.equals("createStatement")) {
+                return proxy(Statement.class, new StatementHandler((Statement) result, null, instrumentation));
+            } else if (name.equals("prepareStatement")) {
+                return proxy(PreparedStatement.class, new StatementHandler((Statement) result, (String) args[0], instrumentation));
+            } else if (name.equals("prepareCall")) {
+                return proxy(CallableStatement.class, new StatementHandler((Statement) result, (String) args[0], instrumentation));
+            }
+            return result;
+        }
+    }
+
+    private static class StatementHandler extends DelegatingHandler {
+
+        private final String preparedSql;
+        private String batchSql;
+
+        private StatementHandler(Statement delegate, String preparedSql, JdbcInstrumentation instrumentation) {
+            super(delegate, instrumentation);
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        protected Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("addBatch") && args != null && args.length == 1) {
+                batchSql = (String) args[0];
+            }
+            if (!name.startsWith("execute")) {
+                Object result = delegate(method, args);
+                if (name.equals("getResultSet") && result != null) {
+                    return wrapResultSet((ResultSet) result);
+                }
+                return result;
+            }
+
+            String sql = preparedSql;
+            if (args != null && args.length > 0 && args[0] instanceof String) {
+                sql = (String) args[0];
+            } else if (sql == null && name.equals("executeBatch")) {
+                sql = batchSql;
+            }
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = delegate(method, args);
+            } finally {
+                instrumentation.recordExecution(sql, System.nanoTime() - start);
+            }
+            if (result instanceof ResultSet) {
+                return wrapResultSet((ResultSet) result);
+            }
+            return result;
+        }
+
+        private ResultSet wrapResultSet(ResultSet resultSet) {
+            return proxy(ResultSet.class, new ResultSetHandler(resultSet, instrumentation));
+        }
+    }
+
+    private static class ResultSetHandler extends DelegatingHandler {
+
+        private long rows = 0;
+        private boolean closed = false;
+
+        private ResultSetHandler(ResultSet delegate, JdbcInstrumentation instrumentation) {
+            super(delegate, instrumentation);
+        }
+
+        @Override
+        protected Object handle(Method method, Object[] args) throws Throwable {
+            Object result = delegate(method, args);
+            String name = method.getName();
+            if (name.equals("next") && Boolean.TRUE.equals(result)) {
+                ++rows;
+            } else if (name.equals("close") && !closed) {
+                closed = true;
+                instrumentation.recordRows(rows);
+            }
+            return result;
+        }
+    }
+
+}
@@ -0,0 +1,29 @@
+package org.kie.perf.jbpm.jdbc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hibernate settings of the JDBC batching mode (<code>jbpm.jdbc.batchSize</code>
+ * greater than 0): inserts and updates are grouped by entity and sent in JDBC
+ * batches of given size, and ids are allocated by pooled sequences so that
+ * inserts need not wait for a sequence round trip per entity.
+ */
+public class JdbcBatching {
+
+    private JdbcBatching() {
+
+    }
+
+    public static Map<String, Object> getPersistenceProperties(int batchSize) {
+        Map<String, Object> props = new HashMap<String, Object>();
+        props.put("hibernate.jdbc.batch_size", String.valueOf(batchSize));
+        props.put("hibernate.jdbc.batch_versioned_data", "true");
+        props.put("hibernate.order_inserts", "true");
+        props.put("hibernate.order_updates", "true");
+        // SequenceStyleGenerator with pooled optimizer (allocationSize of the mappings)
+        props.put("hibernate.id.new_generator_mappings", "true");
+        return props;
+    }
+
+}
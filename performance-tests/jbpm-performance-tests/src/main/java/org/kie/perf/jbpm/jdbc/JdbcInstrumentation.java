@@ -0,0 +1,283 @@
+package org.kie.perf.jbpm.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.kie.perf.SharedMetricRegistry;
+import org.kie.perf.jbpm.JBPMTestConfig;
+import org.kie.perf.jbpm.metrics.HdrTimers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Collects statement level JDBC metrics of an instrumented data source (see
+ * {@link #wrap(DataSource)}) into <code>SharedMetricRegistry</code>:
+ * <ul>
+ * <li><code>jdbc.[select|insert|update|delete|other].duration</code> - timers
+ * of statement executions per statement kind</li>
+ * <li><code>jdbc.statements</code> - number of statements executed by engine
+ * threads</li>
+ * <li><code>jdbc.statements.background</code> - number of statements executed
+ * by background threads (see {@link #excludeCurrentThread()})</li>
+ * <li><code>jdbc.select.rows</code> - histogram of rows fetched per result
+ * set</li>
+ * <li><code>jdbc.slowest.[n]</code> - the statement shapes (SQL with literals
+ * replaced by <code>?</code>) with the highest total execution time</li>
+ * </ul>
+ * Metric names are prefixed with the scenario class, every scenario calls
+ * {@link #startScenario(Class)} (through
+ * <code>JBPMController.startScenario</code>) from <code>initMetrics</code> so
+ * that warm-up statements are not counted. Until then metrics are prefixed
+ * with this class. The number of reported statement shapes is
+ * <code>jbpm.jdbc.topStatements</code>.
+ */
+public class JdbcInstrumentation {
+
+    protected static final Logger log = LoggerFactory.getLogger(JdbcInstrumentation.class);
+
+    public static final String[] KINDS = { "select", "insert", "update", "delete", "other" };
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'([^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final ThreadLocal<Boolean> BACKGROUND = new ThreadLocal<Boolean>() {
+        @Override
+        protected Boolean initialValue() {
+            return Boolean.FALSE;
+        }
+    };
+
+    private static JdbcInstrumentation instance;
+
+    private final MetricRegistry metrics;
+    private final int topStatements;
+
+    private Class<?> scenario;
+    private volatile Map<String, Timer> timers;
+    private volatile Counter statements;
+    private volatile Counter backgroundStatements;
+    private volatile Histogram rows;
+    private volatile Map<String, StatementShape> shapes;
+
+    private JdbcInstrumentation(MetricRegistry metrics, int topStatements) {
+        this.metrics = metrics;
+        this.topStatements = topStatements;
+        startScenario(JdbcInstrumentation.class);
+    }
+
+    /**
+     * Resets statement counts and shapes and (re)registers the metrics
+     * prefixed with given scenario class.
+     */
+    public synchronized void startScenario(Class<?> scenario) {
+        if (this.scenario != null) {
+            removeMetrics(this.scenario);
+        }
+        removeMetrics(scenario);
+        this.scenario = scenario;
+
+        Map<String, Timer> newTimers = new ConcurrentHashMap<String, Timer>();
+        for (String kind : KINDS) {
+            newTimers.put(kind, HdrTimers.scenarioTimer(metrics, MetricRegistry.name(scenario, "jdbc", kind, "duration")));
+        }
+        statements = metrics.counter(MetricRegistry.name(scenario, "jdbc.statements"));
+        backgroundStatements = metrics.counter(MetricRegistry.name(scenario, "jdbc.statements.background"));
+        rows = metrics.histogram(MetricRegistry.name(scenario, "jdbc.select.rows"));
+        shapes = new ConcurrentHashMap<String, StatementShape>();
+        timers = newTimers;
+        for (int i = 0; i < topStatements; ++i) {
+            final int rank = i;
+            metrics.register(MetricRegistry.name(scenario, "jdbc.slowest", String.valueOf(i + 1)), new Gauge<String>() {
+                @Override
+                public String getValue() {
+                    List<StatementShape> slowest = getSlowestShapes();
+                    return rank < slowest.size() ? slowest.get(rank).toString() : "";
+                }
+            });
+        }
+    }
+
+    private void removeMetrics(Class<?> scenario) {
+        for (String kind : KINDS) {
+            metrics.remove(MetricRegistry.name(scenario, "jdbc", kind, "duration"));
+        }
+        metrics.remove(MetricRegistry.name(scenario, "jdbc.statements"));
+        metrics.remove(MetricRegistry.name(scenario, "jdbc.statements.background"));
+        metrics.remove(MetricRegistry.name(scenario, "jdbc.select.rows"));
+        for (int i = 0; i < topStatements; ++i) {
+            metrics.remove(MetricRegistry.name(scenario, "jdbc.slowest", String.valueOf(i + 1)));
+        }
+    }
+
+    public static synchronized JdbcInstrumentation getInstance() {
+        if (instance == null) {
+            instance = new JdbcInstrumentation(SharedMetricRegistry.getInstance(), JBPMTestConfig.getInstance().getJdbcTopStatements());
+        }
+        return instance;
+    }
+
+    /**
+     * Marks the current thread as a background thread (e.g. the asynchronous
+     * audit writer). Its statements are still timed, but counted in
+     * <code>jdbc.statements.background</code> instead of
+     * {@link #getStatementCount()}, so that statements per process measured by
+     * an engine thread do not depend on when the background thread runs.
+     */
+    public static void excludeCurrentThread() {
+        BACKGROUND.set(Boolean.TRUE);
+    }
+
+    /**
+     * Returns a data source which delegates to given one and records all
+     * statements executed through its connections.
+     */
+    public DataSource wrap(DataSource dataSource) {
+        return InstrumentedJdbc.wrap(dataSource, this);
+    }
+
+    void recordExecution(String sql, long nanos) {
+        String kind = getKind(sql);
+        timers.get(kind).update(nanos, TimeUnit.NANOSECONDS);
+        if (BACKGROUND.get()) {
+            backgroundStatements.inc();
+        } else {
+            statements.inc();
+        }
+        if (sql == null) {
+            return;
+        }
+        String shape = getShape(sql);
+        Map<String, StatementShape> shapes = this.shapes;
+        StatementShape stats = shapes.get(shape);
+        if (stats == null) {
+            synchronized (shapes) {
+                stats = shapes.get(shape);
+                if (stats == null) {
+                    stats = new StatementShape(shape);
+                    shapes.put(shape, stats);
+                }
+            }
+        }
+        stats.record(nanos);
+    }
+
+    void recordRows(long fetched) {
+        rows.update(fetched);
+    }
+
+    /**
+     * @return number of statements executed so far by engine threads (a JDBC
+     *         batch counts as one statement)
+     */
+    public long getStatementCount() {
+        return statements.getCount();
+    }
+
+    public List<StatementShape> getSlowestShapes() {
+        List<StatementShape> sorted = new ArrayList<StatementShape>(shapes.values());
+        Collections.sort(sorted, new Comparator<StatementShape>() {
+            @Override
+            public int compare(StatementShape o1, StatementShape o2) {
+                long t1 = o1.getTotalNanos();
+                long t2 = o2.getTotalNanos();
+                return t1 < t2 ? 1 : (t1 == t2 ? 0 : -1);
+            }
+        });
+        return sorted.subList(0, Math.min(topStatements, sorted.size()));
+    }
+
+    /**
+     * Logs the slowest statement shapes.
+     */
+    public void report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("JDBC statements executed: ").append(statements.getCount());
+        if (backgroundStatements.getCount() > 0) {
+            sb.append(" (+ ").append(backgroundStatements.getCount()).append(" by background threads)");
+        }
+        for (StatementShape shape : getSlowestShapes()) {
+            sb.append("\n  ").append(shape);
+        }
+        log.info(sb.toString());
+    }
+
+    static String getKind(String sql) {
+        if (sql == null) {
+            return "other";
+        }
+        String trimmed = sql.trim().toLowerCase();
+        for (int i = 0; i < KINDS.length - 1; ++i) {
+            if (trimmed.startsWith(KINDS[i])) {
+                return KINDS[i];
+            }
+        }
+        return "other";
+    }
+
+    static String getShape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    public static class StatementShape {
+
+        private final String sql;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private volatile long maxNanos;
+
+        private StatementShape(String sql) {
+            this.sql = sql;
+        }
+
+        private void record(long nanos) {
+            count.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            if (nanos > maxNanos) {
+                maxNanos = nanos;
+            }
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.get();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("total %.1f ms, %d executions, max %.3f ms: %s", totalNanos.get() / 1000000.0,
+                    count.get(), maxNanos / 1000000.0, sql);
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+package org.kie.perf.jbpm.metrics;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically writes interval histograms of registered reservoirs into
+ * <code>[reportDataLocation]/[metric name].[start time].hlog</code> files, so
+ * every run keeps its own logs. The logs are lossless and can be merged across
+ * runs by {@link HdrHistogramLogMerger}.
+ */
+public class HdrHistogramLog {
+
+    protected static final Logger log = LoggerFactory.getLogger(HdrHistogramLog.class);
+
+    private static HdrHistogramLog instance;
+
+    private final File directory;
+    private final Map<String, HdrHistogramReservoir> reservoirs = new ConcurrentHashMap<String, HdrHistogramReservoir>();
+    private final Map<String, HistogramLogWriter> writers = new ConcurrentHashMap<String, HistogramLogWriter>();
+    private final List<PrintStream> streams = new CopyOnWriteArrayList<PrintStream>();
+    private final ScheduledExecutorService scheduler;
+    private final long startTime;
+    private long lastTimestamp;
+
+    private HdrHistogramLog(File directory, long periodSeconds) {
+        this.directory = directory;
+        this.startTime = System.currentTimeMillis();
+        this.lastTimestamp = startTime;
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "hdr-histogram-log");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                writeIntervals();
+            }
+        }, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                close();
+            }
+        });
+    }
+
+    public static synchronized HdrHistogramLog getInstance(String reportDataLocation, long periodSeconds) {
+        if (instance == null) {
+            File directory = new File(reportDataLocation);
+            directory.mkdirs();
+            instance = new HdrHistogramLog(directory, Math.max(1, periodSeconds));
+        }
+        return instance;
+    }
+
+    public void register(String name, HdrHistogramReservoir reservoir) {
+        reservoirs.put(name, reservoir);
+    }
+
+    public synchronized void writeIntervals() {
+        long now = System.currentTimeMillis();
+        for (Entry<String, HdrHistogramReservoir> entry : reservoirs.entrySet()) {
+            try {
+                Histogram interval = entry.getValue().getIntervalHistogram();
+                interval.setStartTimeStamp(lastTimestamp);
+                interval.setEndTimeStamp(now);
+                getWriter(entry.getKey()).outputIntervalHistogram(interval);
+            } catch (Exception ex) {
+                log.warn("Unable to write histogram log of {}: {}", entry.getKey(), ex.getMessage());
+            }
+        }
+        lastTimestamp = now;
+    }
+
+    public synchronized void close() {
+        scheduler.shutdown();
+        writeIntervals();
+        reservoirs.clear();
+        writers.clear();
+        for (PrintStream stream : streams) {
+            stream.close();
+        }
+        streams.clear();
+    }
+
+    private HistogramLogWriter getWriter(String name) throws FileNotFoundException {
+        HistogramLogWriter writer = writers.get(name);
+        if (writer == null) {
+            // auto flush so that nothing gets lost when the run is killed
+            PrintStream stream = new PrintStream(new FileOutputStream(new File(directory, name + "." + startTime + ".hlog")), true);
+            streams.add(stream);
+            writer = new HistogramLogWriter(stream);
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(startTime);
+            writer.setBaseTime(startTime);
+            writer.outputLegend();
+            writers.put(name, writer);
+        }
+        return writer;
+    }
+
+}
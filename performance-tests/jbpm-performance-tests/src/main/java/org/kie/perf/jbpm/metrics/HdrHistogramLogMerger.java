@@ -0,0 +1,112 @@
+package org.kie.perf.jbpm.metrics;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FilenameFilter;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+
+/**
+ * Merges <code>.hlog</code> files of the same metric written by
+ * {@link HdrHistogramLog} in several runs into one histogram and prints its
+ * percentile distribution (in milliseconds). Directories are expanded to the
+ * logs of the metric given by <code>-metric</code> (all logs without it). <br/>
+ * Usage:
+ * <code>HdrHistogramLogMerger [output file] [-metric &lt;name&gt;] &lt;.hlog file|directory&gt;...</code>
+ */
+public class HdrHistogramLogMerger {
+
+    private static final double NANOS_IN_MILLI = 1000000.0;
+
+    private static final String USAGE = "Usage: HdrHistogramLogMerger [output file] [-metric <name>] <.hlog file|directory>...";
+
+    private HdrHistogramLogMerger() {
+
+    }
+
+    public static Histogram merge(List<File> logs) throws FileNotFoundException {
+        Histogram merged = null;
+        for (File file : logs) {
+            HistogramLogReader reader = new HistogramLogReader(file);
+            EncodableHistogram interval;
+            while ((interval = reader.nextIntervalHistogram()) != null) {
+                if (!(interval instanceof Histogram)) {
+                    continue;
+                }
+                if (merged == null) {
+                    merged = new Histogram(((Histogram) interval).getNumberOfSignificantValueDigits());
+                }
+                merged.add((Histogram) interval);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Returns logs of given metric (all logs when null) in given directory,
+     * one per run.
+     */
+    public static List<File> findLogs(File directory, String metric) {
+        final Pattern pattern = Pattern.compile((metric != null ? Pattern.quote(metric) : ".+") + "(\\.\\d+)?\\.hlog");
+        File[] files = directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return pattern.matcher(name).matches();
+            }
+        });
+        List<File> logs = new ArrayList<File>();
+        if (files != null) {
+            logs.addAll(Arrays.asList(files));
+            Collections.sort(logs);
+        }
+        return logs;
+    }
+
+    public static void main(String[] args) throws FileNotFoundException {
+        PrintStream out = System.out;
+        String metric = null;
+        List<File> inputs = new ArrayList<File>();
+        for (int i = 0; i < args.length; ++i) {
+            if ("-metric".equals(args[i]) && i + 1 < args.length) {
+                metric = args[++i];
+                continue;
+            }
+            File file = new File(args[i]);
+            if (file.isDirectory() || file.getName().endsWith(".hlog")) {
+                inputs.add(file);
+            } else if (i == 0) {
+                out = new PrintStream(file);
+            }
+        }
+        List<File> logs = new ArrayList<File>();
+        for (File input : inputs) {
+            if (input.isDirectory()) {
+                logs.addAll(findLogs(input, metric));
+            } else {
+                logs.add(input);
+            }
+        }
+        if (logs.isEmpty()) {
+            System.err.println(USAGE);
+            return;
+        }
+        Histogram merged = merge(logs);
+        if (merged == null) {
+            System.err.println("No histograms found");
+            return;
+        }
+        merged.outputPercentileDistribution(out, NANOS_IN_MILLI);
+        if (out != System.out) {
+            out.close();
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+package org.kie.perf.jbpm.metrics;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.Recorder;
+
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+
+/**
+ * Reservoir keeping every recorded value in HdrHistogram. Unlike the default
+ * exponentially decaying reservoir no sample is ever dropped, memory is bounded
+ * by the number of significant digits and the highest trackable value.
+ */
+public class HdrHistogramReservoir implements Reservoir {
+
+    private static final long HIGHEST_TRACKABLE_VALUE = TimeUnit.MINUTES.toNanos(10);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Recorder recorder;
+    private final Histogram total;
+    private final Histogram pending;
+    private Histogram interval;
+
+    public HdrHistogramReservoir() {
+        recorder = new Recorder(HIGHEST_TRACKABLE_VALUE, SIGNIFICANT_DIGITS);
+        total = new Histogram(HIGHEST_TRACKABLE_VALUE, SIGNIFICANT_DIGITS);
+        pending = new Histogram(HIGHEST_TRACKABLE_VALUE, SIGNIFICANT_DIGITS);
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, getSnapshot().size());
+    }
+
+    @Override
+    public void update(long value) {
+        recorder.recordValue(Math.min(value, HIGHEST_TRACKABLE_VALUE));
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        return new HdrSnapshot(getTotalHistogram());
+    }
+
+    /**
+     * Returns values recorded since the last call of this method. Snapshots
+     * taken by reporters in the meantime do not remove any value from the
+     * interval.
+     */
+    public synchronized Histogram getIntervalHistogram() {
+        drain();
+        Histogram result = pending.copy();
+        pending.reset();
+        return result;
+    }
+
+    /**
+     * @return copy of all values recorded so far
+     */
+    public synchronized Histogram getTotalHistogram() {
+        drain();
+        return total.copy();
+    }
+
+    /**
+     * Moves values from the recorder into the total histogram and into the
+     * interval pending for {@link #getIntervalHistogram()}.
+     */
+    private void drain() {
+        interval = recorder.getIntervalHistogram(interval);
+        total.add(interval);
+        pending.add(interval);
+    }
+
+    private static class HdrSnapshot extends Snapshot {
+
+        private final Histogram histogram;
+
+        HdrSnapshot(Histogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public double getValue(double quantile) {
+            return histogram.getValueAtPercentile(quantile * 100.0);
+        }
+
+        @Override
+        public long[] getValues() {
+            long[] values = new long[(int) Math.min(Integer.MAX_VALUE, histogram.getTotalCount())];
+            int i = 0;
+            for (HistogramIterationValue value : histogram.recordedValues()) {
+                for (long j = 0; j < value.getCountAtValueIteratedTo() && i < values.length; ++j) {
+                    values[i++] = value.getValueIteratedTo();
+                }
+            }
+            return values;
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(Integer.MAX_VALUE, histogram.getTotalCount());
+        }
+
+        @Override
+        public long getMax() {
+            return histogram.getMaxValue();
+        }
+
+        @Override
+        public double getMean() {
+            return histogram.getMean();
+        }
+
+        @Override
+        public long getMin() {
+            return histogram.getMinValue();
+        }
+
+        @Override
+        public double getStdDev() {
+            return histogram.getStdDeviation();
+        }
+
+        @Override
+        public void dump(OutputStream output) {
+            PrintWriter out = new PrintWriter(new OutputStreamWriter(output));
+            try {
+                for (long value : getValues()) {
+                    out.printf("%d%n", value);
+                }
+            } finally {
+                out.close();
+            }
+        }
+
+    }
+
+}
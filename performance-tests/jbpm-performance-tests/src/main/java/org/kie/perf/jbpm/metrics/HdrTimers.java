@@ -0,0 +1,51 @@
+package org.kie.perf.jbpm.metrics;
+
+import org.kie.perf.jbpm.JBPMTestConfig;
+
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Creates HdrHistogram backed timers in given registry. When
+ * <code>jbpm.hdrHistogram</code> is enabled all scenario timers are backed by
+ * HdrHistogram and their interval histograms are logged into
+ * <code>reportDataLocation</code>.
+ */
+public class HdrTimers {
+
+    private HdrTimers() {
+
+    }
+
+    /**
+     * Returns timer registered under given name or registers a new one backed
+     * by {@link HdrHistogramReservoir}.
+     */
+    public static Timer timer(MetricRegistry metrics, String name) {
+        synchronized (metrics) {
+            Metric metric = metrics.getMetrics().get(name);
+            if (metric instanceof Timer) {
+                return (Timer) metric;
+            }
+            HdrHistogramReservoir reservoir = new HdrHistogramReservoir();
+            JBPMTestConfig tc = JBPMTestConfig.getInstance();
+            if (tc.isHdrHistogram()) {
+                HdrHistogramLog.getInstance(tc.getHdrHistogramLogLocation(), tc.getHdrHistogramLogPeriod()).register(name, reservoir);
+            }
+            return metrics.register(name, new Timer(reservoir));
+        }
+    }
+
+    /**
+     * Returns HdrHistogram backed timer when <code>jbpm.hdrHistogram</code> is
+     * enabled, the default registry timer otherwise.
+     */
+    public static Timer scenarioTimer(MetricRegistry metrics, String name) {
+        if (JBPMTestConfig.getInstance().isHdrHistogram()) {
+            return timer(metrics, name);
+        }
+        return metrics.timer(name);
+    }
+
+}
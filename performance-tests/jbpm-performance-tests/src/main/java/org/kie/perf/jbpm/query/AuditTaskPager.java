@@ -0,0 +1,75 @@
+package org.kie.perf.jbpm.query;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+
+import org.jbpm.services.task.audit.impl.model.AuditTaskImpl;
+import org.kie.internal.task.api.AuditTask;
+
+/**
+ * Pages through audit tasks owned by given user ordered by task id. <br/>
+ * OFFSET mode skips <code>offset</code> rows of the ordered result, so the
+ * database has to read all of them for every page. KEYSET mode seeks right
+ * after the last task id of the previous page, which costs the same for every
+ * page when task id is indexed. <br/>
+ * Queries <code>AuditTaskImpl</code> directly, TaskAuditService has no keyset
+ * variant to compare with.
+ */
+public class AuditTaskPager {
+
+    public enum Mode {
+        OFFSET, KEYSET
+    }
+
+    private static final String OFFSET_QUERY = "select at from AuditTaskImpl at where at.actualOwner = :owner order by at.taskId";
+    private static final String KEYSET_QUERY = "select at from AuditTaskImpl at where at.actualOwner = :owner and at.taskId > :lastTaskId order by at.taskId";
+
+    private final EntityManagerFactory emf;
+    private final Mode mode;
+    private final String owner;
+    private final int pageSize;
+
+    private int offset;
+    private long lastTaskId = -1;
+    private boolean finished;
+
+    public AuditTaskPager(EntityManagerFactory emf, Mode mode, String owner, int pageSize) {
+        this.emf = emf;
+        this.mode = mode;
+        this.owner = owner;
+        this.pageSize = pageSize;
+    }
+
+    public boolean hasNext() {
+        return !finished;
+    }
+
+    /**
+     * @return next page of tasks, empty list when there are no more tasks
+     */
+    @SuppressWarnings("unchecked")
+    public List<AuditTask> next() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            TypedQuery<AuditTaskImpl> query;
+            if (mode == Mode.KEYSET) {
+                query = em.createQuery(KEYSET_QUERY, AuditTaskImpl.class).setParameter("lastTaskId", lastTaskId);
+            } else {
+                query = em.createQuery(OFFSET_QUERY, AuditTaskImpl.class).setFirstResult(offset);
+            }
+            List<AuditTaskImpl> page = query.setParameter("owner", owner).setMaxResults(pageSize).getResultList();
+            offset += page.size();
+            if (!page.isEmpty()) {
+                lastTaskId = page.get(page.size() - 1).getTaskId();
+            }
+            finished = page.size() < pageSize;
+            return (List<AuditTask>) (List<?>) page;
+        } finally {
+            em.close();
+        }
+    }
+
+}
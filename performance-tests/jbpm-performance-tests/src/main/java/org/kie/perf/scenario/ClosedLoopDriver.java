@@ -0,0 +1,101 @@
+package org.kie.perf.scenario;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.kie.perf.SharedMetricRegistry;
+import org.kie.perf.jbpm.JBPMController;
+import org.kie.perf.jbpm.metrics.HdrTimers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Closed loop driver - every worker thread executes the scenario again as soon
+ * as the previous execution finished. Each worker owns its RuntimeEngine (see
+ * {@link JBPMController#setThreadOwnedEngines(boolean)}) so the harness itself
+ * does not introduce any contention. Latency and throughput are reported per
+ * number of threads.
+ */
+public class ClosedLoopDriver {
+
+    protected static final Logger log = LoggerFactory.getLogger(ClosedLoopDriver.class);
+
+    private final IPerfTest scenario;
+    private final Class<?> owner;
+
+    public ClosedLoopDriver(IPerfTest scenario, Class<?> owner) {
+        this.scenario = scenario;
+        this.owner = owner;
+    }
+
+    /**
+     * Runs the scenario in given number of threads, every thread executes it
+     * <code>iterationsPerThread</code> times.
+     * 
+     * @return throughput in executions per second
+     */
+    public long run(int threads, final int iterationsPerThread) {
+        MetricRegistry metrics = SharedMetricRegistry.getInstance();
+        final Timer duration = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(owner, "scenario.threads." + threads + ".execute.duration"));
+        Histogram throughput = metrics.histogram(MetricRegistry.name(owner, "scenario.threads." + threads + ".throughput"));
+
+        final JBPMController jc = JBPMController.getInstance();
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        final AtomicReference<RuntimeException> failure = new AtomicReference<RuntimeException>();
+
+        List<Thread> workers = new ArrayList<Thread>(threads);
+        for (int i = 0; i < threads; ++i) {
+            Thread worker = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int j = 0; j < iterationsPerThread && failure.get() == null; ++j) {
+                            Timer.Context context = duration.time();
+                            scenario.execute();
+                            context.stop();
+                        }
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    } catch (RuntimeException ex) {
+                        failure.compareAndSet(null, ex);
+                    } finally {
+                        jc.releaseRuntimeEngine();
+                        done.countDown();
+                    }
+                }
+            }, "closed-loop-" + threads + "-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        try {
+            done.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for workers", ex);
+        }
+        long elapsed = System.nanoTime() - startTime;
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+
+        long executions = (long) threads * iterationsPerThread;
+        long perSecond = elapsed > 0 ? executions * TimeUnit.SECONDS.toNanos(1) / elapsed : executions;
+        throughput.update(perSecond);
+        log.info("Threads: {}, executions: {}, throughput: {}/s", new Object[] { threads, executions, perSecond });
+        return perSecond;
+    }
+
+}
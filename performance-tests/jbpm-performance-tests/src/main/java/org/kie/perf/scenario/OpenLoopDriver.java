@@ -0,0 +1,109 @@
+package org.kie.perf.scenario;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.kie.perf.SharedMetricRegistry;
+import org.kie.perf.jbpm.metrics.HdrTimers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Open loop driver - executions of the scenario are scheduled at constant
+ * arrival rate regardless of how long the previous ones took. Latency is
+ * measured from the intended start time, so any stall of the engine shows up in
+ * the latency of all executions which should have been started meanwhile
+ * (coordinated omission correction). Service time is measured from the real
+ * start of the execution.
+ */
+public class OpenLoopDriver {
+
+    protected static final Logger log = LoggerFactory.getLogger(OpenLoopDriver.class);
+
+    private final IPerfTest scenario;
+
+    private Timer latency;
+    private Timer serviceTime;
+    private Counter failed;
+
+    public OpenLoopDriver(IPerfTest scenario, Class<?> owner) {
+        this.scenario = scenario;
+        MetricRegistry metrics = SharedMetricRegistry.getInstance();
+        latency = HdrTimers.timer(metrics, MetricRegistry.name(owner, "scenario.openloop.latency"));
+        serviceTime = HdrTimers.timer(metrics, MetricRegistry.name(owner, "scenario.openloop.service.duration"));
+        failed = metrics.counter(MetricRegistry.name(owner, "scenario.openloop.failed"));
+    }
+
+    /**
+     * Fires the scenario <code>rate</code> times per second for given number
+     * of seconds using <code>workers</code> threads and waits until all
+     * scheduled executions finish.
+     */
+    public void run(int rate, int durationSeconds, int workers) {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("Arrival rate has to be positive, was " + rate);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(workers, new ThreadFactory() {
+            private final AtomicInteger counter = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "open-loop-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        final AtomicReference<RuntimeException> failure = new AtomicReference<RuntimeException>();
+
+        long period = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = (long) rate * durationSeconds;
+        long start = System.nanoTime();
+        for (long i = 0; i < total && failure.get() == null; ++i) {
+            final long intendedStart = start + i * period;
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    long begin = System.nanoTime();
+                    try {
+                        scenario.execute();
+                    } catch (RuntimeException ex) {
+                        failed.inc();
+                        failure.compareAndSet(null, ex);
+                    } finally {
+                        long end = System.nanoTime();
+                        serviceTime.update(end - begin, TimeUnit.NANOSECONDS);
+                        latency.update(end - intendedStart, TimeUnit.NANOSECONDS);
+                    }
+                }
+            });
+        }
+
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.info("Waiting for scheduled executions to finish");
+            }
+        } catch (InterruptedException ex) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+package org.kie.perf.scenario;
+
+import org.kie.perf.SharedMetricRegistry;
+import org.kie.perf.jbpm.JBPMController;
+import org.kie.perf.jbpm.jdbc.JdbcInstrumentation;
+import org.kie.perf.jbpm.metrics.HdrTimers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Base of scenarios measuring the database writes of a whole process instance
+ * lifecycle. Every execution is timed
+ * (<code>scenario.process.duration</code>, throughput in
+ * <code>scenario.process.completed</code>) and, when
+ * <code>jbpm.jdbc.instrumentation</code> is enabled, the number of JDBC
+ * statements it executed is recorded in
+ * <code>scenario.process.statements</code>. Statement counts are exact with
+ * one thread only and do not include statements of the asynchronous audit
+ * writer (counted in <code>jdbc.statements.background</code>). Run with and without <code>jbpm.jdbc.batchSize</code> (see
+ * the <code>jdbc-batching</code> profile) to compare.
+ */
+public abstract class PersistenceWritesScenario implements IPerfTest {
+
+    protected static final Logger log = LoggerFactory.getLogger(PersistenceWritesScenario.class);
+
+    protected JBPMController jc;
+
+    private JdbcInstrumentation instrumentation;
+
+    private Timer processDuration;
+    private Meter completedProcess;
+    private Histogram statements;
+
+    @Override
+    public void init() {
+        jc = JBPMController.getInstance();
+        createRuntimeManager();
+        instrumentation = jc.getJdbcInstrumentation();
+        if (instrumentation == null) {
+            log.warn("jbpm.jdbc.instrumentation is disabled, statements per process are not recorded");
+        }
+    }
+
+    @Override
+    public void initMetrics() {
+        MetricRegistry metrics = SharedMetricRegistry.getInstance();
+        processDuration = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(getClass(), "scenario.process.duration"));
+        completedProcess = metrics.meter(MetricRegistry.name(getClass(), "scenario.process.completed"));
+        statements = metrics.histogram(MetricRegistry.name(getClass(), "scenario.process.statements"));
+        jc.startScenario(getClass());
+    }
+
+    @Override
+    public void execute() {
+        long statementsBefore = instrumentation != null ? instrumentation.getStatementCount() : 0;
+
+        Timer.Context context = processDuration.time();
+        runProcess();
+        context.stop();
+        completedProcess.mark();
+
+        if (instrumentation != null) {
+            statements.update(instrumentation.getStatementCount() - statementsBefore);
+        }
+    }
+
+    @Override
+    public void close() {
+        jc.tearDown();
+    }
+
+    /**
+     * Creates runtime manager with the measured process.
+     */
+    protected abstract void createRuntimeManager();
+
+    /**
+     * Runs one process instance from start to completion.
+     */
+    protected abstract void runProcess();
+
+}
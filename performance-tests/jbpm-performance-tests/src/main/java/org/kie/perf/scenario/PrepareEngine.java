@@ -1,32 +1,124 @@
 package org.kie.perf.scenario;
 
-import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-import org.jbpm.services.task.impl.factories.TaskFactory;
+import javax.naming.InitialContext;
+import javax.transaction.Status;
+import javax.transaction.UserTransaction;
+
+import org.drools.persistence.jta.JtaTransactionManager;
 import org.kie.api.task.TaskService;
-import org.kie.api.task.model.Task;
+import org.kie.perf.jbpm.JBPMTestConfig;
 import org.kie.perf.jbpm.constant.UserStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class PrepareEngine {
 
+    protected static final Logger log = LoggerFactory.getLogger(PrepareEngine.class);
+
     public static List<Long> createNewTasks(boolean start, int count, TaskService taskService) {
-        String str = "(with (new Task()) { priority = 55, taskData = (with( new TaskData()) { } ), ";
-        str += "peopleAssignments = (with ( new PeopleAssignments() ) { potentialOwners = [new User('" + UserStorage.PerfUser.getUserId()
-                + "')], businessAdministrators = [ new User('Administrator') ], }),";
-        str += "names = [ new I18NText( 'en-UK', 'perf-sample-task')] })";
-        List<Long> taskIds = new ArrayList<Long>();
-        while (count > 0) {
-            Task task = TaskFactory.evalTask(new StringReader(str));
-            long taskId = taskService.addTask(task, null);
-            taskIds.add(taskId);
-            if (start) {
-                taskService.start(taskId, UserStorage.PerfUser.getUserId());
+        JBPMTestConfig tc = JBPMTestConfig.getInstance();
+        return createNewTasks(start, count, taskService, TaskTemplate.forPotentialOwners(UserStorage.PerfUser.getUserId()),
+                UserStorage.PerfUser.getUserId(), tc.getTaskBatchSize(), tc.getTaskWorkers());
+    }
+
+    /**
+     * Creates <code>count</code> tasks and adds them to given queue.
+     */
+    public static TaskWorkQueue createNewTasks(boolean start, int count, TaskService taskService, TaskWorkQueue queue) {
+        queue.addAll(createNewTasks(start, count, taskService));
+        return queue;
+    }
+
+    /**
+     * Creates <code>count</code> tasks as copies of given template. Tasks are
+     * inserted in batches, each batch in single transaction when persistence
+     * is enabled, batches are spread among <code>workers</code> threads.
+     * 
+     * @param start
+     *            - whether tasks shall be started by <code>userId</code>
+     * @return ids of created tasks in order of creation
+     */
+    public static List<Long> createNewTasks(final boolean start, int count, final TaskService taskService,
+            final TaskTemplate template, final String userId, int batchSize, int workers) {
+        batchSize = Math.max(1, batchSize);
+        workers = Math.max(1, workers);
+        List<Callable<List<Long>>> batches = new ArrayList<Callable<List<Long>>>();
+        for (int offset = 0; offset < count; offset += batchSize) {
+            final int size = Math.min(batchSize, count - offset);
+            batches.add(new Callable<List<Long>>() {
+                @Override
+                public List<Long> call() throws Exception {
+                    return createBatch(start, size, taskService, template, userId);
+                }
+            });
+        }
+
+        List<Long> taskIds = new ArrayList<Long>(count);
+        if (workers == 1) {
+            for (Callable<List<Long>> batch : batches) {
+                try {
+                    taskIds.addAll(batch.call());
+                } catch (Exception ex) {
+                    throw new RuntimeException("Unable to create tasks", ex);
+                }
+            }
+            return taskIds;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            for (Future<List<Long>> batch : executor.invokeAll(batches)) {
+                taskIds.addAll(batch.get());
             }
-            count--;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while creating tasks", ex);
+        } catch (ExecutionException ex) {
+            throw new RuntimeException("Unable to create tasks", ex.getCause());
+        } finally {
+            executor.shutdownNow();
         }
         return taskIds;
     }
 
+    private static List<Long> createBatch(boolean start, int size, TaskService taskService, TaskTemplate template,
+            String userId) throws Exception {
+        UserTransaction ut = null;
+        if (JBPMTestConfig.getInstance().isPersistence()) {
+            ut = (UserTransaction) new InitialContext().lookup(JtaTransactionManager.DEFAULT_USER_TRANSACTION_NAME);
+            ut.begin();
+        }
+        try {
+            List<Long> taskIds = new ArrayList<Long>(size);
+            for (int i = 0; i < size; ++i) {
+                long taskId = taskService.addTask(template.newTask(), null);
+                taskIds.add(taskId);
+                if (start) {
+                    taskService.start(taskId, userId);
+                }
+            }
+            if (ut != null) {
+                ut.commit();
+            }
+            return taskIds;
+        } catch (Exception ex) {
+            if (ut != null && ut.getStatus() != Status.STATUS_NO_TRANSACTION) {
+                try {
+                    ut.rollback();
+                } catch (Exception e) {
+                    log.warn("Unable to rollback transaction: {}", e.getMessage());
+                }
+            }
+            throw ex;
+        }
+    }
+
 }
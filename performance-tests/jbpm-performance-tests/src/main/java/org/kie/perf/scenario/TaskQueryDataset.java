@@ -0,0 +1,98 @@
+package org.kie.perf.scenario;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.kie.api.task.TaskService;
+import org.kie.internal.query.QueryFilter;
+import org.kie.perf.jbpm.GeneratingUserGroupCallback;
+import org.kie.perf.jbpm.JBPMTestConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Human tasks spread among generated users and groups. Every user and every
+ * group gets the same share of tasks, user tasks are reserved by the user,
+ * group tasks stay ready for all members of the group.
+ */
+public class TaskQueryDataset {
+
+    protected static final Logger log = LoggerFactory.getLogger(TaskQueryDataset.class);
+
+    public static final String USER_BASE_NAME = "queryUser";
+    public static final String GROUP_BASE_NAME = "queryGroup";
+
+    private final int taskCount;
+    private final List<String> users;
+    private final List<String> groups;
+    private final GeneratingUserGroupCallback userGroupCallback;
+
+    public TaskQueryDataset(int taskCount, int userCount, int groupCount) {
+        this.taskCount = taskCount;
+        this.userGroupCallback = new GeneratingUserGroupCallback(USER_BASE_NAME, GROUP_BASE_NAME, userCount, groupCount);
+        this.users = new ArrayList<String>(userGroupCallback.getUsers());
+        this.groups = new ArrayList<String>(groupCount);
+        for (String group : userGroupCallback.getGroups()) {
+            if (group.startsWith(GROUP_BASE_NAME)) {
+                groups.add(group);
+            }
+        }
+    }
+
+    public static TaskQueryDataset fromConfig() {
+        JBPMTestConfig tc = JBPMTestConfig.getInstance();
+        return new TaskQueryDataset(tc.getQueryTasks(), tc.getQueryUsers(), tc.getQueryGroups());
+    }
+
+    public void seed(TaskService taskService) {
+        JBPMTestConfig tc = JBPMTestConfig.getInstance();
+        int owners = users.size() + groups.size();
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < owners; ++i) {
+            int count = taskCount / owners + (i < taskCount % owners ? 1 : 0);
+            if (i < users.size()) {
+                String user = users.get(i);
+                PrepareEngine.createNewTasks(false, count, taskService, TaskTemplate.forPotentialOwners(user), user,
+                        tc.getTaskBatchSize(), tc.getTaskWorkers());
+            } else {
+                String group = groups.get(i - users.size());
+                PrepareEngine.createNewTasks(false, count, taskService, TaskTemplate.forGroupPotentialOwners(group), null,
+                        tc.getTaskBatchSize(), tc.getTaskWorkers());
+            }
+        }
+        log.info("{} tasks created in {} ms", taskCount, System.currentTimeMillis() - start);
+    }
+
+    public GeneratingUserGroupCallback getUserGroupCallback() {
+        return userGroupCallback;
+    }
+
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    /**
+     * @return user whose tasks are queried
+     */
+    public String getQueriedUser() {
+        return users.get(0);
+    }
+
+    public List<String> getGroupsOfQueriedUser() {
+        return userGroupCallback.getGroupsForUser(getQueriedUser(), null, null);
+    }
+
+    /**
+     * Creates filter of page starting at given offset ordered according to
+     * <code>jbpm.query.orderBy</code> and <code>jbpm.query.ascending</code>.
+     */
+    public QueryFilter newQueryFilter(int offset) {
+        JBPMTestConfig tc = JBPMTestConfig.getInstance();
+        String orderBy = tc.getQueryOrderBy();
+        if (orderBy == null || orderBy.trim().isEmpty()) {
+            return new QueryFilter(offset, tc.getQueryPageSize());
+        }
+        return new QueryFilter(offset, tc.getQueryPageSize(), orderBy, tc.isQueryAscending());
+    }
+
+}
@@ -0,0 +1,89 @@
+package org.kie.perf.scenario;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.kie.api.task.TaskService;
+import org.kie.api.task.model.Status;
+import org.kie.perf.SharedMetricRegistry;
+import org.kie.perf.jbpm.JBPMController;
+import org.kie.perf.jbpm.JBPMTestConfig;
+import org.kie.perf.jbpm.metrics.HdrTimers;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Base of task query scenarios. The dataset is seeded once in init(), every
+ * execution runs the query for each page offset from
+ * <code>jbpm.query.offsets</code>. Latency is reported per dataset size and
+ * offset, e.g. <code>scenario.tasks.10000.query.offset.1000.duration</code>.
+ */
+public abstract class TaskQueryScenario implements IPerfTest {
+
+    protected static final List<Status> ACTIVE_STATUSES = Arrays.asList(Status.Ready, Status.Reserved, Status.InProgress);
+
+    protected JBPMController jc;
+
+    protected TaskService taskService;
+
+    protected TaskQueryDataset dataset;
+
+    private Map<Integer, Timer> offsetTimers = new HashMap<Integer, Timer>();
+
+    private volatile int resultSize;
+
+    @Override
+    public void init() {
+        dataset = TaskQueryDataset.fromConfig();
+
+        jc = JBPMController.getInstance();
+        jc.setUserGroupCallback(dataset.getUserGroupCallback());
+        jc.createRuntimeManager();
+
+        taskService = jc.getRuntimeEngine().getTaskService();
+        dataset.seed(taskService);
+    }
+
+    @Override
+    public void initMetrics() {
+        MetricRegistry metrics = SharedMetricRegistry.getInstance();
+        String prefix = "scenario.tasks." + dataset.getTaskCount() + ".query";
+        for (int offset : JBPMTestConfig.getInstance().getQueryOffsets()) {
+            offsetTimers.put(offset, HdrTimers.scenarioTimer(metrics, MetricRegistry.name(getClass(), prefix, "offset", String.valueOf(offset), "duration")));
+        }
+        String pageSize = MetricRegistry.name(getClass(), prefix, "page.size");
+        metrics.remove(pageSize);
+        metrics.register(pageSize, new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return resultSize;
+            }
+        });
+        jc.startScenario(getClass());
+    }
+
+    @Override
+    public void execute() {
+        for (int offset : JBPMTestConfig.getInstance().getQueryOffsets()) {
+            Timer.Context context = offsetTimers.get(offset).time();
+            List<?> result = query(offset);
+            context.stop();
+            resultSize = result.size();
+        }
+    }
+
+    /**
+     * Queries a page of tasks starting at given offset.
+     */
+    protected abstract List<?> query(int offset);
+
+    @Override
+    public void close() {
+        jc.tearDown();
+    }
+
+}
@@ -0,0 +1,116 @@
+package org.kie.perf.scenario;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jbpm.services.task.impl.factories.TaskFactory;
+import org.kie.api.task.model.Group;
+import org.kie.api.task.model.I18NText;
+import org.kie.api.task.model.OrganizationalEntity;
+import org.kie.api.task.model.PeopleAssignments;
+import org.kie.api.task.model.Task;
+import org.kie.internal.task.api.TaskModelFactory;
+import org.kie.internal.task.api.TaskModelProvider;
+import org.kie.internal.task.api.model.InternalI18NText;
+import org.kie.internal.task.api.model.InternalPeopleAssignments;
+import org.kie.internal.task.api.model.InternalTask;
+
+/**
+ * Task evaluated from MVEL only once. New tasks are plain copies of the
+ * template, so creating a task costs just a few object allocations instead of
+ * MVEL evaluation.
+ */
+public class TaskTemplate {
+
+    private final Task template;
+    private final TaskModelFactory factory = TaskModelProvider.getFactory();
+
+    public TaskTemplate(String mvel) {
+        this.template = TaskFactory.evalTask(new StringReader(mvel));
+    }
+
+    /**
+     * Creates template of task with given potential owners and
+     * 'Administrator' as business administrator.
+     */
+    public static TaskTemplate forPotentialOwners(String... userIds) {
+        return new TaskTemplate(mvel(entities("User", userIds)));
+    }
+
+    /**
+     * Creates template of task with given groups as potential owners and
+     * 'Administrator' as business administrator.
+     */
+    public static TaskTemplate forGroupPotentialOwners(String... groupIds) {
+        return new TaskTemplate(mvel(entities("Group", groupIds)));
+    }
+
+    private static String entities(String type, String... ids) {
+        StringBuilder entities = new StringBuilder();
+        for (String id : ids) {
+            if (entities.length() > 0) {
+                entities.append(", ");
+            }
+            entities.append("new ").append(type).append("('").append(id).append("')");
+        }
+        return entities.toString();
+    }
+
+    private static String mvel(String potentialOwners) {
+        String str = "(with (new Task()) { priority = 55, taskData = (with( new TaskData()) { } ), ";
+        str += "peopleAssignments = (with ( new PeopleAssignments() ) { potentialOwners = [" + potentialOwners
+                + "], businessAdministrators = [ new User('Administrator') ], }),";
+        str += "names = [ new I18NText( 'en-UK', 'perf-sample-task')] })";
+        return str;
+    }
+
+    public Task newTask() {
+        InternalTask task = (InternalTask) factory.newTask();
+        task.setPriority(template.getPriority());
+        task.setName(template.getName());
+        task.setSubject(template.getSubject());
+        task.setDescription(template.getDescription());
+        task.setNames(copyTexts(template.getNames()));
+        task.setSubjects(copyTexts(template.getSubjects()));
+        task.setDescriptions(copyTexts(template.getDescriptions()));
+        task.setTaskData(factory.newTaskData());
+
+        PeopleAssignments source = template.getPeopleAssignments();
+        InternalPeopleAssignments assignments = (InternalPeopleAssignments) factory.newPeopleAssignments();
+        if (source != null) {
+            assignments.setPotentialOwners(copyEntities(source.getPotentialOwners()));
+            assignments.setBusinessAdministrators(copyEntities(source.getBusinessAdministrators()));
+        }
+        task.setPeopleAssignments(assignments);
+        return task;
+    }
+
+    private List<I18NText> copyTexts(List<I18NText> texts) {
+        List<I18NText> copy = new ArrayList<I18NText>();
+        if (texts != null) {
+            for (I18NText text : texts) {
+                InternalI18NText t = (InternalI18NText) factory.newI18NText();
+                t.setLanguage(text.getLanguage());
+                t.setText(text.getText());
+                copy.add(t);
+            }
+        }
+        return copy;
+    }
+
+    private List<OrganizationalEntity> copyEntities(List<OrganizationalEntity> entities) {
+        List<OrganizationalEntity> copy = new ArrayList<OrganizationalEntity>();
+        if (entities != null) {
+            for (OrganizationalEntity entity : entities) {
+                if (entity instanceof Group) {
+                    copy.add(factory.newGroup(entity.getId()));
+                } else {
+                    copy.add(factory.newUser(entity.getId()));
+                }
+            }
+        }
+        return copy;
+    }
+
+}
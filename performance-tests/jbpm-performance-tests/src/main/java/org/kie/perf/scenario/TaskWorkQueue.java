@@ -0,0 +1,46 @@
+package org.kie.perf.scenario;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Lock-free queue of prepared task ids. Every task is handed out to exactly
+ * one caller, so any number of threads can drain the queue concurrently.
+ */
+public class TaskWorkQueue {
+
+    private final ConcurrentLinkedQueue<Long> taskIds = new ConcurrentLinkedQueue<Long>();
+
+    public void addAll(Collection<Long> ids) {
+        taskIds.addAll(ids);
+    }
+
+    /**
+     * @return id of next task or null when the queue is drained
+     */
+    public Long poll() {
+        return taskIds.poll();
+    }
+
+    /**
+     * @return id of next task
+     * @throws IllegalStateException
+     *             when the queue is drained
+     */
+    public Long claim() {
+        Long taskId = taskIds.poll();
+        if (taskId == null) {
+            throw new IllegalStateException("No prepared task left, increase number of prepared tasks or lower iterations");
+        }
+        return taskId;
+    }
+
+    public boolean isEmpty() {
+        return taskIds.isEmpty();
+    }
+
+    public void clear() {
+        taskIds.clear();
+    }
+
+}
@@ -0,0 +1,185 @@
+package org.kie.perf.scenario;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.kie.api.event.process.DefaultProcessEventListener;
+import org.kie.api.event.process.ProcessCompletedEvent;
+import org.kie.api.runtime.process.WorkflowProcessInstance;
+import org.kie.perf.SharedMetricRegistry;
+import org.kie.perf.jbpm.JBPMController;
+import org.kie.perf.jbpm.JBPMTestConfig;
+import org.kie.perf.jbpm.constant.ProcessStorage;
+import org.kie.perf.jbpm.metrics.HdrTimers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Base of timer scenarios. For every count N in <code>jbpm.timers.counts</code>
+ * one execution starts N process instances waiting on a timer due in
+ * <code>jbpm.timers.delay</code> ms plus a random part of
+ * <code>jbpm.timers.spread</code> ms, then waits until all of them complete.
+ * Recorded per N:
+ * <ul>
+ * <li><code>scenario.timer.[N].schedule.duration</code> - start of one process
+ * instance including scheduling of its timer</li>
+ * <li><code>scenario.timer.[N].fire.latency</code> - completion of the process
+ * instance behind the time its timer was due</li>
+ * <li><code>scenario.timer.[N].heap.bytes</code> - heap retained by N pending
+ * timers (measured after full GC)</li>
+ * </ul>
+ * Throughput of completions is in <code>scenario.timer.completed</code> and
+ * pending timers in <code>scenario.timer.pending</code>. The delay should be
+ * longer than scheduling of N timers takes, otherwise timers fire during the
+ * heap measurement.
+ */
+public abstract class TimerScenario implements IPerfTest {
+
+    protected static final Logger log = LoggerFactory.getLogger(TimerScenario.class);
+
+    private static final long AWAIT_MARGIN_MS = TimeUnit.MINUTES.toMillis(5);
+
+    protected JBPMController jc;
+
+    private final Random random = new Random();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private volatile CountDownLatch fired;
+    private volatile Timer fireLatency;
+
+    private MetricRegistry metrics;
+    private Meter completedTimers;
+
+    @Override
+    public void init() {
+        jc = JBPMController.getInstance();
+
+        jc.setProcessEventListener(new DefaultProcessEventListener() {
+            @Override
+            public void afterProcessCompleted(ProcessCompletedEvent event) {
+                Object due = ((WorkflowProcessInstance) event.getProcessInstance()).getVariable("due");
+                if (due instanceof Long && fireLatency != null) {
+                    fireLatency.update(Math.max(0, System.currentTimeMillis() - (Long) due), TimeUnit.MILLISECONDS);
+                }
+                completedTimers.mark();
+                pending.decrementAndGet();
+                CountDownLatch latch = fired;
+                if (latch != null) {
+                    latch.countDown();
+                }
+            }
+        });
+
+        jc.createRuntimeManager(getProcess().getPath());
+    }
+
+    @Override
+    public void initMetrics() {
+        metrics = SharedMetricRegistry.getInstance();
+        completedTimers = metrics.meter(MetricRegistry.name(getClass(), "scenario.timer.completed"));
+        String pendingName = MetricRegistry.name(getClass(), "scenario.timer.pending");
+        metrics.remove(pendingName);
+        metrics.register(pendingName, new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return pending.get();
+            }
+        });
+        jc.startScenario(getClass());
+    }
+
+    @Override
+    public void execute() {
+        for (int count : JBPMTestConfig.getInstance().getTimerCounts()) {
+            run(count);
+        }
+    }
+
+    @Override
+    public void close() {
+        jc.tearDown();
+    }
+
+    /**
+     * Process waiting on a timer with duration taken from <code>delay</code>
+     * variable.
+     */
+    protected abstract ProcessStorage getProcess();
+
+    private void run(int count) {
+        JBPMTestConfig tc = JBPMTestConfig.getInstance();
+        int delay = tc.getTimerDelay();
+        int spread = tc.getTimerSpread();
+
+        awaitPrevious(count);
+        Timer schedule = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(getClass(), "scenario.timer." + count + ".schedule.duration"));
+        Histogram heap = metrics.histogram(MetricRegistry.name(getClass(), "scenario.timer." + count + ".heap.bytes"));
+        fireLatency = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(getClass(), "scenario.timer." + count + ".fire.latency"));
+        CountDownLatch latch = new CountDownLatch(count);
+        fired = latch;
+
+        long heapBefore = usedHeap();
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < count; ++i) {
+            long due = delay + (spread > 0 ? random.nextInt(spread) : 0);
+            Map<String, Object> params = new HashMap<String, Object>();
+            params.put("delay", due + "ms");
+            params.put("due", System.currentTimeMillis() + due);
+            pending.incrementAndGet();
+            Timer.Context context = schedule.time();
+            jc.getRuntimeEngine().getKieSession().startProcess(getProcess().getProcessDefinitionId(), params);
+            context.stop();
+        }
+        long scheduled = System.currentTimeMillis();
+        long retained = usedHeap() - heapBefore;
+        heap.update(retained);
+
+        try {
+            if (!latch.await(delay + spread + AWAIT_MARGIN_MS, TimeUnit.MILLISECONDS)) {
+                log.warn("{} of {} timers did not fire in time", latch.getCount(), count);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long finished = System.currentTimeMillis();
+        log.info("{} timers scheduled in {} ms, last fired {} ms after start, {} bytes of heap per pending timer", new Object[] { count,
+                scheduled - start, finished - start, retained / count });
+    }
+
+    /**
+     * Waits until timers of the previous count fire, so their latency is not
+     * recorded under the next count.
+     */
+    private void awaitPrevious(int count) {
+        CountDownLatch previous = fired;
+        if (previous == null || previous.getCount() == 0) {
+            return;
+        }
+        log.info("Waiting for {} pending timers of the previous count", previous.getCount());
+        try {
+            if (!previous.await(AWAIT_MARGIN_MS, TimeUnit.MILLISECONDS)) {
+                log.warn("{} timers of the previous count still pending, their fire latency is recorded under count {}",
+                        previous.getCount(), count);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+}
@@ -1,7 +1,5 @@
 package org.kie.perf.scenario.load;
 
-import java.util.List;
-
 import org.jbpm.services.task.events.DefaultTaskEventListener;
 import org.kie.api.task.TaskEvent;
 import org.kie.api.task.TaskService;
@@ -11,6 +9,7 @@ import org.kie.perf.jbpm.JBPMController;
 import org.kie.perf.jbpm.constant.UserStorage;
 import org.kie.perf.scenario.IPerfTest;
 import org.kie.perf.scenario.PrepareEngine;
+import org.kie.perf.scenario.TaskWorkQueue;
 
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
@@ -24,7 +23,7 @@ public class L1000HumanTasksComplete implements IPerfTest {
 
     private Meter taskCompleted;
 
-    private List<Long> taskIds;
+    private TaskWorkQueue taskQueue = new TaskWorkQueue();
 
     @Override
     public void init() {
@@ -46,20 +45,18 @@ public class L1000HumanTasksComplete implements IPerfTest {
 
     @Override
     public void initMetrics() {
-        taskId = 0;
-        taskIds = PrepareEngine.createNewTasks(true, 1000, taskService);
+        taskQueue.clear();
+        PrepareEngine.createNewTasks(true, 1000, taskService, taskQueue);
         
         MetricRegistry metrics = SharedMetricRegistry.getInstance();
         taskCompleted = metrics.meter(MetricRegistry.name(L1000HumanTasksComplete.class, "scenario.task.completed"));
+        jc.startScenario(L1000HumanTasksComplete.class);
     }
 
-    static int taskId = 0;
-
     @Override
     public void execute() {
-        Long tid = taskIds.get(taskId);
+        Long tid = taskQueue.claim();
         taskService.complete(tid, UserStorage.PerfUser.getUserId(), null);
-        taskId++;
     }
 
     @Override
@@ -49,6 +49,7 @@ public class L1000HumanTasksQueryPagination implements IPerfTest {
                 return tasks.size();
             }
         });
+        jc.startScenario(L1000HumanTasksQueryPagination.class);
     }
 
     @Override
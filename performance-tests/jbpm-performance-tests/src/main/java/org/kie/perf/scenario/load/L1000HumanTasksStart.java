@@ -1,7 +1,5 @@
 package org.kie.perf.scenario.load;
 
-import java.util.List;
-
 import org.jbpm.services.task.events.DefaultTaskEventListener;
 import org.kie.api.task.TaskEvent;
 import org.kie.api.task.TaskService;
@@ -11,6 +9,7 @@ import org.kie.perf.jbpm.JBPMController;
 import org.kie.perf.jbpm.constant.UserStorage;
 import org.kie.perf.scenario.IPerfTest;
 import org.kie.perf.scenario.PrepareEngine;
+import org.kie.perf.scenario.TaskWorkQueue;
 
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
@@ -24,7 +23,7 @@ public class L1000HumanTasksStart implements IPerfTest {
 
     private Meter taskStarted;
 
-    private List<Long> taskIds;
+    private TaskWorkQueue taskQueue = new TaskWorkQueue();
 
     @Override
     public void init() {
@@ -44,20 +43,18 @@ public class L1000HumanTasksStart implements IPerfTest {
 
     @Override
     public void initMetrics() {
-        taskId = 0;
-        taskIds = PrepareEngine.createNewTasks(false, 1000, taskService);
+        taskQueue.clear();
+        PrepareEngine.createNewTasks(false, 1000, taskService, taskQueue);
         
         MetricRegistry metrics = SharedMetricRegistry.getInstance();
         taskStarted = metrics.meter(MetricRegistry.name(L1000HumanTasksStart.class, "scenario.task.started"));
+        jc.startScenario(L1000HumanTasksStart.class);
     }
 
-    static int taskId = 0;
-
     @Override
     public void execute() {
-        Long tid = taskIds.get(taskId);
+        Long tid = taskQueue.claim();
         taskService.start(tid, UserStorage.PerfUser.getUserId());
-        taskId++;
     }
 
     @Override
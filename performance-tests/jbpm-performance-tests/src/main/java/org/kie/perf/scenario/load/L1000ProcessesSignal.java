@@ -8,6 +8,7 @@ import org.kie.perf.SharedMetricRegistry;
 import org.kie.perf.annotation.KPKConstraint;
 import org.kie.perf.jbpm.JBPMController;
 import org.kie.perf.jbpm.constant.ProcessStorage;
+import org.kie.perf.jbpm.metrics.HdrTimers;
 import org.kie.perf.scenario.IPerfTest;
 
 import com.codahale.metrics.Meter;
@@ -41,8 +42,9 @@ public class L1000ProcessesSignal implements IPerfTest {
     public void initMetrics() {
         MetricRegistry metrics = SharedMetricRegistry.getInstance();
         completedProcess = metrics.meter(MetricRegistry.name(L1000ProcessesSignal.class, "scenario.process.completed"));
-        startProcess = metrics.timer(MetricRegistry.name(L1000ProcessesSignal.class, "scenario.process.started.1000.duration"));
-        signalDuration = metrics.timer(MetricRegistry.name(L1000ProcessesSignal.class, "scenario.signal.duration"));
+        startProcess = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(L1000ProcessesSignal.class, "scenario.process.started.1000.duration"));
+        signalDuration = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(L1000ProcessesSignal.class, "scenario.signal.duration"));
+        jc.startScenario(L1000ProcessesSignal.class);
     }
 
     @Override
@@ -0,0 +1,56 @@
+package org.kie.perf.scenario.load;
+
+import org.kie.perf.SharedMetricRegistry;
+import org.kie.perf.jbpm.JBPMTestConfig;
+import org.kie.perf.jbpm.JBPMTestConfig.AuditMode;
+import org.kie.perf.jbpm.audit.AsyncAuditLogger;
+import org.kie.perf.jbpm.constant.ProcessStorage;
+import org.kie.perf.scenario.PersistenceWritesScenario;
+
+/**
+ * Runs a process with ten parallel gateways - dominated by node instance audit
+ * writes - with the audit mode chosen by <code>jbpm.audit.mode</code>. With
+ * <code>async</code> the audit entries are written by {@link AsyncAuditLogger}
+ * and its queue and flush metrics are reported as well.
+ */
+public class LAuditParallelGatewayProcess extends PersistenceWritesScenario {
+
+    private AsyncAuditLogger auditLogger;
+
+    @Override
+    protected void createRuntimeManager() {
+        JBPMTestConfig config = JBPMTestConfig.getInstance();
+        if (config.getAuditMode() == AuditMode.ASYNC) {
+            if (jc.getEmf() != null) {
+                auditLogger = new AsyncAuditLogger(jc.getEmf(), config.getAuditBatchSize(), config.getAuditQueueCapacity());
+                jc.setProcessEventListener(auditLogger);
+            } else {
+                log.warn("jbpm.audit.mode=async requires persistence, no audit logs are written");
+            }
+        }
+        jc.createRuntimeManager(ProcessStorage.ParallelGatewayTenTimes.getPath());
+    }
+
+    @Override
+    public void initMetrics() {
+        super.initMetrics();
+        if (auditLogger != null) {
+            auditLogger.registerMetrics(SharedMetricRegistry.getInstance());
+        }
+    }
+
+    @Override
+    protected void runProcess() {
+        jc.getRuntimeEngine().getKieSession().startProcess(ProcessStorage.ParallelGatewayTenTimes.getProcessDefinitionId());
+    }
+
+    @Override
+    public void close() {
+        if (auditLogger != null) {
+            auditLogger.close();
+            auditLogger = null;
+        }
+        super.close();
+    }
+
+}
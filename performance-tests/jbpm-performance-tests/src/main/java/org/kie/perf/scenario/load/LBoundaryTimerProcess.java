@@ -0,0 +1,17 @@
+package org.kie.perf.scenario.load;
+
+import org.kie.perf.jbpm.constant.ProcessStorage;
+import org.kie.perf.scenario.TimerScenario;
+
+/**
+ * Processes with a human task cancelled by a boundary timer event, the timer
+ * fires while the task is still reserved.
+ */
+public class LBoundaryTimerProcess extends TimerScenario {
+
+    @Override
+    protected ProcessStorage getProcess() {
+        return ProcessStorage.BoundaryTimer;
+    }
+
+}
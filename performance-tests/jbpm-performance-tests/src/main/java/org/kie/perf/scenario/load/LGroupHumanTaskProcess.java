@@ -12,6 +12,7 @@ import org.kie.perf.SharedMetricRegistry;
 import org.kie.perf.jbpm.JBPMController;
 import org.kie.perf.jbpm.constant.ProcessStorage;
 import org.kie.perf.jbpm.constant.UserStorage;
+import org.kie.perf.jbpm.metrics.HdrTimers;
 import org.kie.perf.scenario.IPerfTest;
 
 import com.codahale.metrics.Meter;
@@ -47,11 +48,12 @@ public class LGroupHumanTaskProcess implements IPerfTest {
     public void initMetrics() {
         MetricRegistry metrics = SharedMetricRegistry.getInstance();
         completedProcess = metrics.meter(MetricRegistry.name(LGroupHumanTaskProcess.class, "scenario.process.completed"));
-        startProcess = metrics.timer(MetricRegistry.name(LGroupHumanTaskProcess.class, "scenario.process.start.duration"));
-        queryTaskDuration = metrics.timer(MetricRegistry.name(LGroupHumanTaskProcess.class, "scenario.task.query.duration"));
-        claimTaskDuration = metrics.timer(MetricRegistry.name(LGroupHumanTaskProcess.class, "scenario.task.claim.duration"));
-        startTaskDuration = metrics.timer(MetricRegistry.name(LGroupHumanTaskProcess.class, "scenario.task.start.duration"));
-        completeTaskDuration = metrics.timer(MetricRegistry.name(LGroupHumanTaskProcess.class, "scenario.task.complete.duration"));
+        startProcess = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(LGroupHumanTaskProcess.class, "scenario.process.start.duration"));
+        queryTaskDuration = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(LGroupHumanTaskProcess.class, "scenario.task.query.duration"));
+        claimTaskDuration = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(LGroupHumanTaskProcess.class, "scenario.task.claim.duration"));
+        startTaskDuration = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(LGroupHumanTaskProcess.class, "scenario.task.start.duration"));
+        completeTaskDuration = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(LGroupHumanTaskProcess.class, "scenario.task.complete.duration"));
+        jc.startScenario(LGroupHumanTaskProcess.class);
     }
 
     @Override
@@ -14,6 +14,7 @@ import org.kie.perf.SharedMetricRegistry;
 import org.kie.perf.jbpm.JBPMController;
 import org.kie.perf.jbpm.constant.ProcessStorage;
 import org.kie.perf.jbpm.constant.UserStorage;
+import org.kie.perf.jbpm.metrics.HdrTimers;
 import org.kie.perf.scenario.IPerfTest;
 
 import com.codahale.metrics.Meter;
@@ -59,12 +60,13 @@ public class LHumanTaskProcessWithListeners implements IPerfTest {
     @Override
     public void initMetrics() {
         MetricRegistry metrics = SharedMetricRegistry.getInstance();
-        startProcess = metrics.timer(MetricRegistry.name(LHumanTaskProcessWithListeners.class, "scenario.process.start.duration"));
-        startTaskDuration = metrics.timer(MetricRegistry.name(LHumanTaskProcessWithListeners.class, "scenario.task.start.duration"));
-        completeTaskDuration = metrics.timer(MetricRegistry.name(LHumanTaskProcessWithListeners.class, "scenario.task.complete.duration"));
+        startProcess = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(LHumanTaskProcessWithListeners.class, "scenario.process.start.duration"));
+        startTaskDuration = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(LHumanTaskProcessWithListeners.class, "scenario.task.start.duration"));
+        completeTaskDuration = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(LHumanTaskProcessWithListeners.class, "scenario.task.complete.duration"));
         completedProcess = metrics.meter(MetricRegistry.name(LHumanTaskProcessWithListeners.class, "scenario.process.completed"));
         taskStarted = metrics.meter(MetricRegistry.name(L1000HumanTasksStart.class, "scenario.task.started"));
         taskCompleted = metrics.meter(MetricRegistry.name(L1000HumanTasksComplete.class, "scenario.task.completed"));
+        jc.startScenario(LHumanTaskProcessWithListeners.class);
     }
 
     @Override
@@ -8,6 +8,7 @@ import org.kie.api.runtime.process.ProcessInstance;
 import org.kie.perf.SharedMetricRegistry;
 import org.kie.perf.jbpm.JBPMController;
 import org.kie.perf.jbpm.constant.ProcessStorage;
+import org.kie.perf.jbpm.metrics.HdrTimers;
 import org.kie.perf.scenario.IPerfTest;
 
 import com.codahale.metrics.Meter;
@@ -39,8 +40,9 @@ public class LIntermediateSignalProcess implements IPerfTest {
     public void initMetrics() {
         MetricRegistry metrics = SharedMetricRegistry.getInstance();
         completedProcess = metrics.meter(MetricRegistry.name(LIntermediateSignalProcess.class, "scenario.process.completed"));
-        startProcess = metrics.timer(MetricRegistry.name(LIntermediateSignalProcess.class, "scenario.process.start.duration"));
-        signalDuration = metrics.timer(MetricRegistry.name(LIntermediateSignalProcess.class, "scenario.signal.duration"));
+        startProcess = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(LIntermediateSignalProcess.class, "scenario.process.start.duration"));
+        signalDuration = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(LIntermediateSignalProcess.class, "scenario.signal.duration"));
+        jc.startScenario(LIntermediateSignalProcess.class);
     }
 
     @Override
@@ -0,0 +1,16 @@
+package org.kie.perf.scenario.load;
+
+import org.kie.perf.jbpm.constant.ProcessStorage;
+import org.kie.perf.scenario.TimerScenario;
+
+/**
+ * Processes waiting on an intermediate timer event.
+ */
+public class LIntermediateTimerProcess extends TimerScenario {
+
+    @Override
+    protected ProcessStorage getProcess() {
+        return ProcessStorage.IntermediateTimer;
+    }
+
+}
@@ -0,0 +1,40 @@
+package org.kie.perf.scenario.load;
+
+import org.kie.perf.jbpm.JBPMController;
+import org.kie.perf.jbpm.JBPMTestConfig;
+import org.kie.perf.scenario.IPerfTest;
+import org.kie.perf.scenario.OpenLoopDriver;
+
+/**
+ * Runs {@link LHumanTaskProcess} at constant arrival rate set by <code>expectedRate</code>.
+ */
+public class LOpenLoopHumanTaskProcess implements IPerfTest {
+
+    private LHumanTaskProcess scenario = new LHumanTaskProcess();
+
+    private OpenLoopDriver driver;
+
+    @Override
+    public void init() {
+        scenario.init();
+    }
+
+    @Override
+    public void initMetrics() {
+        scenario.initMetrics();
+        driver = new OpenLoopDriver(scenario, LOpenLoopHumanTaskProcess.class);
+        JBPMController.getInstance().startScenario(LOpenLoopHumanTaskProcess.class);
+    }
+
+    @Override
+    public void execute() {
+        JBPMTestConfig tc = JBPMTestConfig.getInstance();
+        driver.run(tc.getOpenLoopRate(), tc.getOpenLoopDuration(), tc.getOpenLoopWorkers());
+    }
+
+    @Override
+    public void close() {
+        scenario.close();
+    }
+
+}
@@ -0,0 +1,40 @@
+package org.kie.perf.scenario.load;
+
+import org.kie.perf.jbpm.JBPMController;
+import org.kie.perf.jbpm.JBPMTestConfig;
+import org.kie.perf.scenario.IPerfTest;
+import org.kie.perf.scenario.OpenLoopDriver;
+
+/**
+ * Runs {@link LStartEndProcess} at constant arrival rate set by <code>expectedRate</code>.
+ */
+public class LOpenLoopStartEndProcess implements IPerfTest {
+
+    private LStartEndProcess scenario = new LStartEndProcess();
+
+    private OpenLoopDriver driver;
+
+    @Override
+    public void init() {
+        scenario.init();
+    }
+
+    @Override
+    public void initMetrics() {
+        scenario.initMetrics();
+        driver = new OpenLoopDriver(scenario, LOpenLoopStartEndProcess.class);
+        JBPMController.getInstance().startScenario(LOpenLoopStartEndProcess.class);
+    }
+
+    @Override
+    public void execute() {
+        JBPMTestConfig tc = JBPMTestConfig.getInstance();
+        driver.run(tc.getOpenLoopRate(), tc.getOpenLoopDuration(), tc.getOpenLoopWorkers());
+    }
+
+    @Override
+    public void close() {
+        scenario.close();
+    }
+
+}
@@ -35,6 +35,7 @@ public class LParallelGatewayProcess implements IPerfTest {
     public void initMetrics() {
         MetricRegistry metrics = SharedMetricRegistry.getInstance();
         completedProcess = metrics.meter(MetricRegistry.name(LParallelGatewayProcess.class, "scenario.process.completed"));
+        jc.startScenario(LParallelGatewayProcess.class);
     }
 
     @Override
@@ -35,6 +35,7 @@ public class LParallelGatewayTenTimesProcess implements IPerfTest {
     public void initMetrics() {
         MetricRegistry metrics = SharedMetricRegistry.getInstance();
         completedProcess = metrics.meter(MetricRegistry.name(LParallelGatewayTenTimesProcess.class, "scenario.process.completed"));
+        jc.startScenario(LParallelGatewayTenTimesProcess.class);
     }
 
     @Override
@@ -37,6 +37,7 @@ public class LParallelGatewayTwoTimesProcess implements IPerfTest {
     public void initMetrics() {
         MetricRegistry metrics = SharedMetricRegistry.getInstance();
         completedProcess = metrics.meter(MetricRegistry.name(LParallelGatewayTwoTimesProcess.class, "scenario.process.completed"));
+        jc.startScenario(LParallelGatewayTwoTimesProcess.class);
     }
 
     @Override
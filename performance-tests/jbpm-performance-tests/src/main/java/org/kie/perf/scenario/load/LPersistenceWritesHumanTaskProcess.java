@@ -0,0 +1,35 @@
+package org.kie.perf.scenario.load;
+
+import java.util.List;
+
+import org.kie.api.runtime.manager.RuntimeEngine;
+import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.api.task.TaskService;
+import org.kie.perf.jbpm.constant.ProcessStorage;
+import org.kie.perf.jbpm.constant.UserStorage;
+import org.kie.perf.scenario.PersistenceWritesScenario;
+
+/**
+ * Starts a human task process, starts and completes its task - process
+ * instance, work item, task, task audit and process audit writes.
+ */
+public class LPersistenceWritesHumanTaskProcess extends PersistenceWritesScenario {
+
+    @Override
+    protected void createRuntimeManager() {
+        jc.createRuntimeManager(ProcessStorage.HumanTask.getPath());
+    }
+
+    @Override
+    protected void runProcess() {
+        RuntimeEngine runtimeEngine = jc.getRuntimeEngine();
+        ProcessInstance pi = runtimeEngine.getKieSession().startProcess(ProcessStorage.HumanTask.getProcessDefinitionId());
+
+        TaskService taskService = runtimeEngine.getTaskService();
+        List<Long> tasks = taskService.getTasksByProcessInstanceId(pi.getId());
+        Long taskId = tasks.get(0);
+        taskService.start(taskId, UserStorage.PerfUser.getUserId());
+        taskService.complete(taskId, UserStorage.PerfUser.getUserId(), null);
+    }
+
+}
@@ -0,0 +1,22 @@
+package org.kie.perf.scenario.load;
+
+import org.kie.perf.jbpm.constant.ProcessStorage;
+import org.kie.perf.scenario.PersistenceWritesScenario;
+
+/**
+ * Runs a process with ten parallel gateways - dominated by node instance audit
+ * writes.
+ */
+public class LPersistenceWritesParallelGatewayProcess extends PersistenceWritesScenario {
+
+    @Override
+    protected void createRuntimeManager() {
+        jc.createRuntimeManager(ProcessStorage.ParallelGatewayTenTimes.getPath());
+    }
+
+    @Override
+    protected void runProcess() {
+        jc.getRuntimeEngine().getKieSession().startProcess(ProcessStorage.ParallelGatewayTenTimes.getProcessDefinitionId());
+    }
+
+}
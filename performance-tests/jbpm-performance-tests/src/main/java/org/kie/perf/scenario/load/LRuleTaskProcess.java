@@ -44,6 +44,7 @@ public class LRuleTaskProcess implements IPerfTest {
     public void initMetrics() {
         MetricRegistry metrics = SharedMetricRegistry.getInstance();
         completedProcess = metrics.meter(MetricRegistry.name(LRuleTaskProcess.class, "scenario.process.completed"));
+        jc.startScenario(LRuleTaskProcess.class);
     }
 
     @Override
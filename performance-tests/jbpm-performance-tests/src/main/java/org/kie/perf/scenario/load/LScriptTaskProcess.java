@@ -35,6 +35,7 @@ public class LScriptTaskProcess implements IPerfTest {
     public void initMetrics() {
         MetricRegistry metrics = SharedMetricRegistry.getInstance();
         completedProcess = metrics.meter(MetricRegistry.name(LScriptTaskProcess.class, "scenario.process.completed"));
+        jc.startScenario(LScriptTaskProcess.class);
     }
 
     @Override
@@ -35,6 +35,7 @@ public class LStartEndProcess implements IPerfTest {
     public void initMetrics() {
         MetricRegistry metrics = SharedMetricRegistry.getInstance();
         completedProcess = metrics.meter(MetricRegistry.name(LStartEndProcess.class, "scenario.process.completed"));
+        jc.startScenario(LStartEndProcess.class);
     }
 
     @Override
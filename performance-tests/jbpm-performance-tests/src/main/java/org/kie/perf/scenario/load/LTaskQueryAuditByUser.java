@@ -0,0 +1,27 @@
+package org.kie.perf.scenario.load;
+
+import java.util.List;
+
+import org.jbpm.services.task.audit.TaskAuditServiceFactory;
+import org.jbpm.services.task.audit.service.TaskAuditService;
+import org.kie.perf.scenario.TaskQueryScenario;
+
+/**
+ * Pages through audit tasks owned by the queried user.
+ */
+public class LTaskQueryAuditByUser extends TaskQueryScenario {
+
+    private TaskAuditService taskAuditService;
+
+    @Override
+    public void init() {
+        super.init();
+        taskAuditService = TaskAuditServiceFactory.newTaskAuditServiceConfigurator().setTaskService(taskService).getTaskAuditService();
+    }
+
+    @Override
+    protected List<?> query(int offset) {
+        return taskAuditService.getAllAuditTasksByUser(dataset.getQueriedUser(), dataset.newQueryFilter(offset));
+    }
+
+}
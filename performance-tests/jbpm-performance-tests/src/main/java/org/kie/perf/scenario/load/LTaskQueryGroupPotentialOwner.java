@@ -0,0 +1,20 @@
+package org.kie.perf.scenario.load;
+
+import java.util.List;
+
+import org.kie.internal.task.api.InternalTaskService;
+import org.kie.perf.scenario.TaskQueryScenario;
+
+/**
+ * Pages through tasks of the queried user as potential owner including tasks
+ * of the groups the user is member of.
+ */
+public class LTaskQueryGroupPotentialOwner extends TaskQueryScenario {
+
+    @Override
+    protected List<?> query(int offset) {
+        return ((InternalTaskService) taskService).getTasksAssignedAsPotentialOwner(dataset.getQueriedUser(),
+                dataset.getGroupsOfQueriedUser(), ACTIVE_STATUSES, dataset.newQueryFilter(offset));
+    }
+
+}
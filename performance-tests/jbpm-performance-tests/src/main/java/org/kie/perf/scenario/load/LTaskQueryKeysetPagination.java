@@ -0,0 +1,93 @@
+package org.kie.perf.scenario.load;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.kie.perf.SharedMetricRegistry;
+import org.kie.perf.jbpm.JBPMController;
+import org.kie.perf.jbpm.JBPMTestConfig;
+import org.kie.perf.jbpm.metrics.HdrTimers;
+import org.kie.perf.jbpm.query.AuditTaskPager;
+import org.kie.perf.jbpm.query.AuditTaskPager.Mode;
+import org.kie.perf.scenario.IPerfTest;
+import org.kie.perf.scenario.TaskQueryDataset;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Walks all audit tasks of the queried user page by page, once with offset
+ * and once with keyset pagination. Latency of every page is reported
+ * separately, e.g. <code>scenario.tasks.10000.keyset.page.42.duration</code>,
+ * to get per-page latency curves of both modes.
+ */
+public class LTaskQueryKeysetPagination implements IPerfTest {
+
+    private JBPMController jc;
+
+    private TaskQueryDataset dataset;
+
+    private MetricRegistry metrics;
+
+    private List<Timer> offsetPages = new ArrayList<Timer>();
+    private List<Timer> keysetPages = new ArrayList<Timer>();
+    private Timer offsetWalk;
+    private Timer keysetWalk;
+
+    @Override
+    public void init() {
+        dataset = TaskQueryDataset.fromConfig();
+
+        jc = JBPMController.getInstance();
+        jc.setUserGroupCallback(dataset.getUserGroupCallback());
+        jc.createRuntimeManager();
+
+        dataset.seed(jc.getRuntimeEngine().getTaskService());
+    }
+
+    @Override
+    public void initMetrics() {
+        metrics = SharedMetricRegistry.getInstance();
+        offsetWalk = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(LTaskQueryKeysetPagination.class, prefix(Mode.OFFSET), "walk.duration"));
+        keysetWalk = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(LTaskQueryKeysetPagination.class, prefix(Mode.KEYSET), "walk.duration"));
+        jc.startScenario(LTaskQueryKeysetPagination.class);
+    }
+
+    @Override
+    public void execute() {
+        walk(Mode.OFFSET, offsetPages, offsetWalk);
+        walk(Mode.KEYSET, keysetPages, keysetWalk);
+    }
+
+    private void walk(Mode mode, List<Timer> pageTimers, Timer walkTimer) {
+        AuditTaskPager pager = new AuditTaskPager(jc.getEmf(), mode, dataset.getQueriedUser(), JBPMTestConfig.getInstance()
+                .getQueryPageSize());
+        Timer.Context walkContext = walkTimer.time();
+        int page = 0;
+        while (pager.hasNext()) {
+            Timer.Context context = pageTimer(mode, pageTimers, page).time();
+            pager.next();
+            context.stop();
+            page++;
+        }
+        walkContext.stop();
+    }
+
+    private Timer pageTimer(Mode mode, List<Timer> pageTimers, int page) {
+        while (pageTimers.size() <= page) {
+            pageTimers.add(HdrTimers.scenarioTimer(metrics, MetricRegistry.name(LTaskQueryKeysetPagination.class, prefix(mode), "page",
+                    String.valueOf(pageTimers.size()), "duration")));
+        }
+        return pageTimers.get(page);
+    }
+
+    private String prefix(Mode mode) {
+        return "scenario.tasks." + dataset.getTaskCount() + "." + mode.name().toLowerCase();
+    }
+
+    @Override
+    public void close() {
+        jc.tearDown();
+    }
+
+}
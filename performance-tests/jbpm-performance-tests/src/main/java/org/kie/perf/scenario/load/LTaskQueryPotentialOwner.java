@@ -0,0 +1,21 @@
+package org.kie.perf.scenario.load;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.kie.internal.task.api.InternalTaskService;
+import org.kie.perf.scenario.TaskQueryScenario;
+
+/**
+ * Pages through tasks of the queried user as potential owner, group tasks
+ * excluded.
+ */
+public class LTaskQueryPotentialOwner extends TaskQueryScenario {
+
+    @Override
+    protected List<?> query(int offset) {
+        return ((InternalTaskService) taskService).getTasksAssignedAsPotentialOwner(dataset.getQueriedUser(),
+                Collections.<String> emptyList(), ACTIVE_STATUSES, dataset.newQueryFilter(offset));
+    }
+
+}
@@ -0,0 +1,49 @@
+package org.kie.perf.scenario.load;
+
+import org.kie.perf.jbpm.JBPMController;
+import org.kie.perf.jbpm.JBPMTestConfig;
+import org.kie.perf.scenario.ClosedLoopDriver;
+import org.kie.perf.scenario.IPerfTest;
+
+/**
+ * Runs {@link LStartEndProcess} in closed loop, each worker owning its
+ * RuntimeEngine. Every execution uses the next thread count set in
+ * <code>jbpm.threadCounts</code> (cycling), so <code>iterations</code> should
+ * be a multiple of the number of thread counts.
+ */
+public class LThreadScalingStartEndProcess implements IPerfTest {
+
+    private LStartEndProcess scenario = new LStartEndProcess();
+
+    private ClosedLoopDriver driver;
+
+    private int execution;
+
+    @Override
+    public void init() {
+        scenario.init();
+        JBPMController.getInstance().setThreadOwnedEngines(true);
+        driver = new ClosedLoopDriver(scenario, LThreadScalingStartEndProcess.class);
+    }
+
+    @Override
+    public void initMetrics() {
+        scenario.initMetrics();
+        // warm-up executions do not shift the thread counts
+        execution = 0;
+        JBPMController.getInstance().startScenario(LThreadScalingStartEndProcess.class);
+    }
+
+    @Override
+    public void execute() {
+        JBPMTestConfig tc = JBPMTestConfig.getInstance();
+        int[] threadCounts = tc.getThreadCounts();
+        driver.run(threadCounts[execution++ % threadCounts.length], tc.getThreadIterations());
+    }
+
+    @Override
+    public void close() {
+        scenario.close();
+    }
+
+}
@@ -10,6 +10,7 @@ import org.kie.perf.SharedMetricRegistry;
 import org.kie.perf.jbpm.JBPMController;
 import org.kie.perf.jbpm.constant.ProcessStorage;
 import org.kie.perf.jbpm.constant.UserStorage;
+import org.kie.perf.jbpm.metrics.HdrTimers;
 import org.kie.perf.scenario.IPerfTest;
 
 import com.codahale.metrics.MetricRegistry;
@@ -33,9 +34,10 @@ public class SHumanTaskProcess implements IPerfTest {
     @Override
     public void initMetrics() {
         MetricRegistry metrics = SharedMetricRegistry.getInstance();
-        startProcess = metrics.timer(MetricRegistry.name(SHumanTaskProcess.class, "scenario.process.start.duration"));
-        startTaskDuration = metrics.timer(MetricRegistry.name(SHumanTaskProcess.class, "scenario.task.start.duration"));
-        completeTaskDuration = metrics.timer(MetricRegistry.name(SHumanTaskProcess.class, "scenario.task.complete.duration"));
+        startProcess = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(SHumanTaskProcess.class, "scenario.process.start.duration"));
+        startTaskDuration = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(SHumanTaskProcess.class, "scenario.task.start.duration"));
+        completeTaskDuration = HdrTimers.scenarioTimer(metrics, MetricRegistry.name(SHumanTaskProcess.class, "scenario.task.complete.duration"));
+        jc.startScenario(SHumanTaskProcess.class);
     }
 
     @Override
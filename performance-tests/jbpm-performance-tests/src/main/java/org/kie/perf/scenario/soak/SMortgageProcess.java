@@ -45,7 +45,7 @@ public class SMortgageProcess implements IPerfTest {
 
     @Override
     public void initMetrics() {
-
+        jc.startScenario(SMortgageProcess.class);
     }
 
     @Override
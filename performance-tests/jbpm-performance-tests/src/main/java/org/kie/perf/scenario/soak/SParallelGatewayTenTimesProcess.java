@@ -36,6 +36,7 @@ public class SParallelGatewayTenTimesProcess implements IPerfTest {
     public void initMetrics() {
         MetricRegistry metrics = SharedMetricRegistry.getInstance();
         completedProcess = metrics.meter(MetricRegistry.name(SParallelGatewayTenTimesProcess.class, "scenario.process.completed"));
+        jc.startScenario(SParallelGatewayTenTimesProcess.class);
     }
 
     @Override
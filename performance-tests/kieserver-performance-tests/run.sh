@@ -120,4 +120,38 @@ then
   PARAMS="$PARAMS -Dkieserver.name=$workbench_name"
 fi
 
+if [ -n "$kieserver_embedded" ]
+then
+  PARAMS="$PARAMS -Dkieserver.embedded=$kieserver_embedded"
+  if [ "$kieserver_embedded" = "true" ]
+  then
+    PARAMS="$PARAMS -Pembedded"
+  fi
+fi
+
+if [ -n "$kieserver_marshallingFormat" ]
+then
+  PARAMS="$PARAMS -Dkieserver.marshallingFormat=$kieserver_marshallingFormat"
+fi
+
+if [ -n "$kieserver_marshallingMetrics" ]
+then
+  PARAMS="$PARAMS -Dkieserver.marshallingMetrics=$kieserver_marshallingMetrics"
+fi
+
+if [ -n "$kieserver_asyncStart" ]
+then
+  PARAMS="$PARAMS -Dkieserver.asyncStart=$kieserver_asyncStart"
+fi
+
+if [ -n "$kieserver_asyncStart_maxConnections" ]
+then
+  PARAMS="$PARAMS -Dkieserver.asyncStart.maxConnections=$kieserver_asyncStart_maxConnections"
+fi
+
+if [ -n "$kieserver_asyncStart_maxInFlight" ]
+then
+  PARAMS="$PARAMS -Dkieserver.asyncStart.maxInFlight=$kieserver_asyncStart_maxInFlight"
+fi
+
 mvn clean install exec:exec $PARAMS
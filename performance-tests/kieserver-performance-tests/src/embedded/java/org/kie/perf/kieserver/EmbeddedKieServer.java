@@ -0,0 +1,140 @@
+package org.kie.perf.kieserver;
+
+import java.io.File;
+import java.util.List;
+import java.util.UUID;
+
+import javax.naming.Context;
+
+import org.jboss.resteasy.plugins.server.tjws.TJWSEmbeddedJaxrsServer;
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.api.KieServerEnvironment;
+import org.kie.server.remote.rest.common.resource.KieServerRestImpl;
+import org.kie.server.services.api.KieServerExtension;
+import org.kie.server.services.api.SupportedTransports;
+import org.kie.server.services.impl.KieServerImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import bitronix.tm.TransactionManagerServices;
+import bitronix.tm.resource.jdbc.PoolingDataSource;
+
+/**
+ * KIE Server REST endpoints running in the test JVM (embedded TJWS with all
+ * server extensions found on classpath) backed by an in-memory H2 database,
+ * so scenarios can run without an application server. The
+ * <code>kieserver-assets</code> kjar is resolved from the local Maven
+ * repository when the container is created, install it by
+ * <code>mvn install</code> in kieserver-assets first.
+ * <p>
+ * Authentication is bypassed, the user is sent by the client with every
+ * request and groups of task users are read from
+ * <code>usergroups.properties</code>.
+ */
+public class EmbeddedKieServer {
+
+    protected static final Logger log = LoggerFactory.getLogger(EmbeddedKieServer.class);
+
+    private static final String DATASOURCE_NAME = "jdbc/jbpm-ds";
+
+    private static final int MAX_POOL_SIZE = 20;
+
+    private static EmbeddedKieServer instance;
+
+    private final int port;
+
+    private PoolingDataSource ds;
+    private TJWSEmbeddedJaxrsServer server;
+    private KieServerImpl kieServer;
+
+    private EmbeddedKieServer(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Starts the server on first call, later calls return the running
+     * instance.
+     */
+    public static synchronized EmbeddedKieServer getInstance() {
+        if (instance == null) {
+            instance = new EmbeddedKieServer(KieServerTestConfig.getInstance().getPort());
+            instance.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    shutdown();
+                }
+            }, "embedded-kie-server-shutdown"));
+        }
+        return instance;
+    }
+
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.stop();
+            instance = null;
+        }
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + port + "/server";
+    }
+
+    private void start() {
+        long start = System.currentTimeMillis();
+        System.setProperty(Context.INITIAL_CONTEXT_FACTORY, "bitronix.tm.jndi.BitronixInitialContextFactory");
+        System.setProperty(KieServerConstants.CFG_BYPASS_AUTH_USER, "true");
+        System.setProperty(KieServerConstants.CFG_HT_CALLBACK, "props");
+        System.setProperty("jbpm.user.group.mapping", "classpath:/usergroups.properties");
+        System.setProperty(KieServerConstants.CFG_PERSISTANCE_DS, DATASOURCE_NAME);
+        System.setProperty(KieServerConstants.CFG_PERSISTANCE_DIALECT, "org.hibernate.dialect.H2Dialect");
+        System.setProperty(KieServerConstants.CFG_PERSISTANCE_TM,
+                "org.hibernate.service.jta.platform.internal.BitronixJtaPlatform");
+        System.setProperty(KieServerConstants.KIE_SERVER_ID, "kieserver-perf-embedded");
+        System.setProperty(KieServerConstants.KIE_SERVER_STATE_REPO, new File("target").getAbsolutePath());
+
+        ds = new PoolingDataSource();
+        ds.setUniqueName(DATASOURCE_NAME);
+        ds.setClassName("bitronix.tm.resource.jdbc.lrc.LrcXADataSource");
+        ds.setMaxPoolSize(MAX_POOL_SIZE);
+        ds.setAllowLocalTransactions(true);
+        ds.getDriverProperties().put("user", "sa");
+        ds.getDriverProperties().put("password", "");
+        ds.getDriverProperties().put("url", "jdbc:h2:mem:kieserver;MVCC=true");
+        ds.getDriverProperties().put("driverClassName", "org.h2.Driver");
+        ds.init();
+
+        server = new TJWSEmbeddedJaxrsServer();
+        server.setPort(port);
+        server.start();
+
+        KieServerEnvironment.setServerId(UUID.randomUUID().toString());
+        kieServer = new KieServerImpl();
+        kieServer.init();
+        server.getDeployment().getRegistry().addSingletonResource(new KieServerRestImpl(kieServer));
+        List<KieServerExtension> extensions = kieServer.getServerExtensions();
+        for (KieServerExtension extension : extensions) {
+            for (Object component : extension.getAppComponents(SupportedTransports.REST)) {
+                server.getDeployment().getRegistry().addSingletonResource(component);
+            }
+        }
+        log.info("Embedded KIE Server started at {} in {} ms", getUrl(), System.currentTimeMillis() - start);
+    }
+
+    private void stop() {
+        if (kieServer != null) {
+            kieServer.destroy();
+            kieServer = null;
+        }
+        if (server != null) {
+            server.stop();
+            server = null;
+        }
+        if (ds != null) {
+            ds.close();
+            ds = null;
+        }
+        TransactionManagerServices.getTransactionManager().shutdown();
+    }
+
+}
@@ -0,0 +1,267 @@
+package org.kie.perf.kieserver;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.util.EntityUtils;
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.api.marshalling.Marshaller;
+import org.kie.server.api.marshalling.MarshallerFactory;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.api.model.Wrapped;
+import org.kie.server.api.model.instance.ProcessInstance;
+import org.kie.server.client.KieServicesException;
+import org.kie.server.client.QueryServicesClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Starts process instances without waiting for the responses. Starts are
+ * posted to the KIE Server REST endpoint
+ * <code>/containers/{id}/processes/{pid}/instances</code> by a non-blocking
+ * HTTP client with at most <code>maxConnections</code> connections, the
+ * caller continues as soon as the request is submitted and blocks only while
+ * <code>maxInFlight</code> starts are pending. Requests and responses use the
+ * configured marshalling format and the marshaller of the KIE Server client.
+ * Start latency is measured from the submission to the response, including
+ * the wait for a free connection.
+ * <p>
+ * Completion is not checked per start, after all starts are drained
+ * {@link #verify()} looks up the instances started by this starter (and only
+ * those) through the query service and counts the completed ones, so
+ * starters of concurrent scenario threads do not count each other's
+ * instances.
+ */
+public class AsyncProcessStarter {
+
+    protected static final Logger log = LoggerFactory.getLogger(AsyncProcessStarter.class);
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final long DRAIN_TIMEOUT_MINUTES = 10;
+
+    /**
+     * Pending starts of all starters (one per scenario thread).
+     */
+    private static final AtomicInteger totalInFlight = new AtomicInteger();
+
+    private final QueryServicesClient queryClient;
+    private final Marshaller marshaller;
+    private final String url;
+    private final ContentType contentType;
+    private final String format;
+    private final String body;
+    private final String authorization;
+
+    private final CloseableHttpAsyncClient httpClient;
+    private final int maxInFlight;
+    private final Semaphore window;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final Set<Long> startedIds = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+
+    private long firstStart;
+
+    private Timer startDuration;
+    private Meter startedProcess;
+    private Counter failedStarts;
+
+    public AsyncProcessStarter(KieServerClient client, String processId, int maxConnections, int maxInFlight) {
+        KieServerTestConfig config = KieServerTestConfig.getInstance();
+        if (!config.getRemoteAPI().equals("REST")) {
+            throw new RuntimeException("Asynchronous process start supports REST remote API only");
+        }
+        MarshallingFormat marshallingFormat = config.getMarshallingFormat();
+        this.queryClient = client.getQueryClient();
+        this.marshaller = MarshallerFactory.getMarshaller(client.getJaxbClasses(), marshallingFormat,
+                AsyncProcessStarter.class.getClassLoader());
+        this.url = config.getApplicationUrl() + "/containers/" + KieServerClient.containerId + "/processes/" + processId
+                + "/instances";
+        this.contentType = ContentType.create(marshallingFormat == MarshallingFormat.JSON ? "application/json"
+                : "application/xml", UTF8);
+        this.format = marshallingFormat.name();
+        this.body = marshaller.marshall(new HashMap<String, Object>());
+        this.authorization = "Basic "
+                + DatatypeConverter.printBase64Binary((config.getUsername() + ":" + config.getPassword()).getBytes(UTF8));
+        this.maxInFlight = maxInFlight;
+        this.window = new Semaphore(maxInFlight);
+        this.httpClient = HttpAsyncClients.custom().setMaxConnTotal(maxConnections).setMaxConnPerRoute(maxConnections)
+                .build();
+        this.httpClient.start();
+    }
+
+    public void registerMetrics(MetricRegistry metrics, Class<?> scenario) {
+        startDuration = metrics.timer(MetricRegistry.name(scenario, "scenario.process.start.duration"));
+        startedProcess = metrics.meter(MetricRegistry.name(scenario, "scenario.process.started"));
+        failedStarts = metrics.counter(MetricRegistry.name(scenario, "scenario.process.start.failed"));
+        String inFlightName = MetricRegistry.name(scenario, "scenario.process.start.inflight");
+        metrics.remove(inFlightName);
+        metrics.register(inFlightName, new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return totalInFlight.get();
+            }
+        });
+    }
+
+    /**
+     * Submits one process start, blocks only while the in-flight window is
+     * full.
+     */
+    public void start() {
+        window.acquireUninterruptibly();
+        if (firstStart == 0) {
+            firstStart = System.currentTimeMillis();
+        }
+        inFlight.incrementAndGet();
+        totalInFlight.incrementAndGet();
+        HttpPost request = new HttpPost(url);
+        request.addHeader(HttpHeaders.ACCEPT, contentType.getMimeType());
+        request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        request.addHeader(KieServerConstants.KIE_CONTENT_TYPE_HEADER, format);
+        request.setEntity(new StringEntity(body, contentType));
+        final Timer.Context context = startDuration.time();
+        try {
+            httpClient.execute(request, new FutureCallback<HttpResponse>() {
+                @Override
+                public void completed(HttpResponse response) {
+                    Long pid;
+                    try {
+                        pid = getProcessInstanceId(response);
+                    } catch (Exception e) {
+                        failed(e);
+                        return;
+                    }
+                    context.stop();
+                    startedIds.add(pid);
+                    started.incrementAndGet();
+                    startedProcess.mark();
+                    release();
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    if (failed.getAndIncrement() == 0) {
+                        log.warn("Process start failed", e);
+                    }
+                    failedStarts.inc();
+                    release();
+                }
+
+                @Override
+                public void cancelled() {
+                    failedStarts.inc();
+                    failed.incrementAndGet();
+                    release();
+                }
+            });
+        } catch (RuntimeException e) {
+            release();
+            throw e;
+        }
+    }
+
+    private Long getProcessInstanceId(HttpResponse response) throws IOException {
+        int status = response.getStatusLine().getStatusCode();
+        String body = response.getEntity() != null ? EntityUtils.toString(response.getEntity(), UTF8) : null;
+        if (status < 200 || status >= 300) {
+            throw new IOException("Unexpected response " + response.getStatusLine() + ": " + body);
+        }
+        Object result = marshaller.unmarshall(body, Object.class);
+        if (result instanceof Wrapped) {
+            result = ((Wrapped<?>) result).unwrap();
+        }
+        return ((Number) result).longValue();
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        totalInFlight.decrementAndGet();
+        window.release();
+    }
+
+    /**
+     * Waits until all submitted starts are answered and closes the HTTP
+     * client, starts still pending after the timeout are cancelled.
+     */
+    public void drain() {
+        try {
+            if (window.tryAcquire(maxInFlight, DRAIN_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                window.release(maxInFlight);
+            } else {
+                log.warn("{} process starts still pending after {} minutes", inFlight.get(), DRAIN_TIMEOUT_MINUTES);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.warn("Unable to close async http client", e);
+        }
+    }
+
+    /**
+     * Drains pending starts and counts instances started by this starter that
+     * are completed.
+     *
+     * @return number of completed process instances
+     */
+    public long verify() {
+        drain();
+        long duration = System.currentTimeMillis() - firstStart;
+        long completed = countCompleted();
+        log.info("Started {} process instances ({} failed) in {} ms ({} per second), {} completed", new Object[] {
+                started.get(), failed.get(), duration, duration > 0 ? started.get() * 1000 / duration : 0, completed });
+        if (completed != started.get()) {
+            log.warn("Completed process instances ({}) do not match successful starts ({})", completed, started.get());
+        }
+        return completed;
+    }
+
+    /**
+     * Looks up only the remembered instances, the process history on the
+     * server may be much longer than this run.
+     */
+    private long countCompleted() {
+        long count = 0;
+        for (Long id : startedIds) {
+            try {
+                ProcessInstance instance = queryClient.findProcessInstanceById(id);
+                if (instance.getState() != null
+                        && instance.getState() == org.kie.api.runtime.process.ProcessInstance.STATE_COMPLETED) {
+                    count++;
+                }
+            } catch (KieServicesException e) {
+                log.debug("Process instance {} not found", id);
+            }
+        }
+        return count;
+    }
+
+}
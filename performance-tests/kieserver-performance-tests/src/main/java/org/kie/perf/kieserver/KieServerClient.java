@@ -1,9 +1,13 @@
 package org.kie.perf.kieserver;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.naming.Context;
 import javax.naming.InitialContext;
@@ -20,6 +24,13 @@ import org.kie.server.client.ProcessServicesClient;
 import org.kie.server.client.QueryServicesClient;
 import org.kie.server.client.UserTaskServicesClient;
 
+/**
+ * Remote services of the <code>kieserver-assets</code> container. Configured
+ * <code>KieServicesClient</code> instances are pooled by credentials, remote API,
+ * marshalling format and JAXB classes and shared across scenarios and
+ * ConcurrentLoadSuite threads, the container is looked up (and created) only
+ * once.
+ */
 public class KieServerClient {
 	
 	public static String containerId = "kieserver-assets";
@@ -27,9 +38,17 @@ public class KieServerClient {
     private static ReleaseId releaseId = new ReleaseId("org.kie.perf", "kieserver-assets",
             "1.0.0-SNAPSHOT");
 
+    private static final ConcurrentMap<List<Object>, KieServicesClient> clients = new ConcurrentHashMap<List<Object>, KieServicesClient>();
+    private static final Set<String> containers = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private static final String EMBEDDED_SERVER_CLASS = "org.kie.perf.kieserver.EmbeddedKieServer";
+    private static boolean embeddedServerStarted = false;
+
     private ProcessServicesClient processClient;
     private UserTaskServicesClient taskClient;
     private QueryServicesClient queryClient;
+
+    private Set<Class<?>> jaxbClasses;
     
     public KieServerClient(Class<?>... classes) {
     	this(KieServerTestConfig.getInstance().getUsername(), KieServerTestConfig.getInstance().getPassword(), classes);
@@ -50,33 +69,112 @@ public class KieServerClient {
     public QueryServicesClient getQueryClient() {
 		return queryClient;
 	}
+
+    /**
+     * Creates probe measuring payloads in the marshalling format and with
+     * JAXB classes of this client.
+     */
+    Set<Class<?>> getJaxbClasses() {
+        return jaxbClasses;
+    }
+
+    public MarshallingProbe newMarshallingProbe() {
+        return new MarshallingProbe(KieServerTestConfig.getInstance().getMarshallingFormat(), jaxbClasses);
+    }
     
     private void init(String username, String password, Class<?>... classes) {
-    	KieServerTestConfig config = KieServerTestConfig.getInstance();
-    	KieServicesConfiguration kconfig = null;
-    	if (KieServerTestConfig.getInstance().getRemoteAPI().equals("JMS")) {
-    		kconfig = KieServicesFactory.newJMSConfiguration(getInitialRemoteContext(), username, password);
-    	} else {
-    		kconfig = KieServicesFactory.newRestConfiguration(config.getApplicationUrl(), username, password);
-    	}
-    	if (classes != null) {
-    		Set<Class<?>> jaxbClasses = new HashSet<Class<?>>(Arrays.asList(classes));
-    		kconfig.addJaxbClasses(jaxbClasses);
-    	}
-    	KieServicesClient client = KieServicesFactory.newKieServicesClient(kconfig);
-    	// create container if not exist
-    	ServiceResponse<KieContainerResource> container = client.getContainerInfo(containerId);
-    	if (container.getType() == ResponseType.FAILURE) {
-    		container = client.createContainer(containerId, new KieContainerResource(containerId, releaseId));
-    		if (container.getType() == ResponseType.FAILURE) {
-    			throw new RuntimeException(container.getMsg());
-    		}
-    	}
-    	this.processClient = client.getServicesClient(ProcessServicesClient.class);
+        jaxbClasses = classes != null ? new HashSet<Class<?>>(Arrays.asList(classes)) : Collections.<Class<?>> emptySet();
+        KieServicesClient client = getServicesClient(username, password, jaxbClasses);
+        ensureContainer(client);
+        this.processClient = client.getServicesClient(ProcessServicesClient.class);
         this.taskClient = client.getServicesClient(UserTaskServicesClient.class);
         this.queryClient = client.getServicesClient(QueryServicesClient.class);
     }
-    
+
+    /**
+     * Returns client shared by all scenarios (and threads) using the same
+     * credentials, remote API, marshalling format and JAXB classes, the client is configured on first
+     * use only.
+     */
+    private static KieServicesClient getServicesClient(String username, String password, Set<Class<?>> jaxbClasses) {
+        KieServerTestConfig config = KieServerTestConfig.getInstance();
+        List<Object> key = Arrays.<Object> asList(username, password, config.getRemoteAPI(), config.getMarshallingFormat(), jaxbClasses);
+        KieServicesClient client = clients.get(key);
+        if (client == null) {
+            synchronized (clients) {
+                client = clients.get(key);
+                if (client == null) {
+                    client = newServicesClient(username, password, jaxbClasses);
+                    clients.put(key, client);
+                }
+            }
+        }
+        return client;
+    }
+
+    private static KieServicesClient newServicesClient(String username, String password, Set<Class<?>> jaxbClasses) {
+        KieServerTestConfig config = KieServerTestConfig.getInstance();
+        if (config.isEmbedded() && config.getRemoteAPI().equals("JMS")) {
+            throw new RuntimeException("Embedded KIE Server supports REST remote API only");
+        }
+        if (config.isEmbedded()) {
+            startEmbeddedServer();
+        }
+        KieServicesConfiguration kconfig = null;
+        if (config.getRemoteAPI().equals("JMS")) {
+            kconfig = KieServicesFactory.newJMSConfiguration(getInitialRemoteContext(), username, password);
+        } else {
+            kconfig = KieServicesFactory.newRestConfiguration(config.getApplicationUrl(), username, password);
+        }
+        kconfig.setMarshallingFormat(config.getMarshallingFormat());
+        if (!jaxbClasses.isEmpty()) {
+            kconfig.addJaxbClasses(new HashSet<Class<?>>(jaxbClasses));
+        }
+        return KieServicesFactory.newKieServicesClient(kconfig);
+    }
+
+    /**
+     * Starts the embedded KIE Server once. The server is compiled and put on
+     * classpath by the <code>embedded</code> profile only, so it is looked up
+     * by name.
+     */
+    private static synchronized void startEmbeddedServer() {
+        if (embeddedServerStarted) {
+            return;
+        }
+        try {
+            Class.forName(EMBEDDED_SERVER_CLASS).getMethod("getInstance").invoke(null);
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException("Embedded KIE Server is not on classpath, run with the embedded profile (mvn -Pembedded ...)", e);
+        } catch (Exception e) {
+            throw new RuntimeException("Embedded KIE Server failed to start", e);
+        }
+        embeddedServerStarted = true;
+    }
+
+    /**
+     * Creates the container if not exist, checked once per remote API.
+     */
+    private static void ensureContainer(KieServicesClient client) {
+        String key = KieServerTestConfig.getInstance().getRemoteAPI() + ":" + containerId;
+        if (containers.contains(key)) {
+            return;
+        }
+        synchronized (containers) {
+            if (containers.contains(key)) {
+                return;
+            }
+            ServiceResponse<KieContainerResource> container = client.getContainerInfo(containerId);
+            if (container.getType() == ResponseType.FAILURE) {
+                container = client.createContainer(containerId, new KieContainerResource(containerId, releaseId));
+                if (container.getType() == ResponseType.FAILURE) {
+                    throw new RuntimeException(container.getMsg());
+                }
+            }
+            containers.add(key);
+        }
+    }
+
     private static InitialContext getInitialRemoteContext() {
         InitialContext context = null;
         try {
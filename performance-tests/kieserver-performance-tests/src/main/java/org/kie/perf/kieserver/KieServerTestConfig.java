@@ -4,6 +4,7 @@ import java.util.Properties;
 
 import org.kie.api.runtime.process.ProcessInstance;
 import org.kie.perf.TestConfig;
+import org.kie.server.api.marshalling.MarshallingFormat;
 
 public class KieServerTestConfig extends TestConfig {
 
@@ -21,6 +22,18 @@ public class KieServerTestConfig extends TestConfig {
 
     protected String remoteAPI;
 
+    protected boolean embedded;
+
+    protected MarshallingFormat marshallingFormat;
+
+    protected boolean marshallingMetrics;
+
+    protected boolean asyncStart;
+
+    protected int asyncStartMaxConnections;
+
+    protected int asyncStartMaxInFlight;
+
     protected KieServerTestConfig() {
 
     }
@@ -60,6 +73,31 @@ public class KieServerTestConfig extends TestConfig {
         properties.put("remoteAPI", remoteAPI);
         addTag(remoteAPI);
         
+        embedded = Boolean.valueOf(System.getProperty("kieserver.embedded", "false"));
+        properties.put("kieserver.embedded", embedded);
+        if (embedded) {
+            addTag("embedded");
+        }
+
+        marshallingFormat = MarshallingFormat.valueOf(System.getProperty("kieserver.marshallingFormat", "JAXB").toUpperCase());
+        properties.put("kieserver.marshallingFormat", marshallingFormat);
+        addTag(marshallingFormat.name());
+
+        marshallingMetrics = Boolean.valueOf(System.getProperty("kieserver.marshallingMetrics", "false"));
+        properties.put("kieserver.marshallingMetrics", marshallingMetrics);
+
+        asyncStart = Boolean.valueOf(System.getProperty("kieserver.asyncStart", "false"));
+        properties.put("kieserver.asyncStart", asyncStart);
+        if (asyncStart) {
+            addTag("asyncStart");
+        }
+
+        asyncStartMaxConnections = Integer.valueOf(System.getProperty("kieserver.asyncStart.maxConnections", "16"));
+        properties.put("kieserver.asyncStart.maxConnections", asyncStartMaxConnections);
+
+        asyncStartMaxInFlight = Integer.valueOf(System.getProperty("kieserver.asyncStart.maxInFlight", "256"));
+        properties.put("kieserver.asyncStart.maxInFlight", asyncStartMaxInFlight);
+
         properties.put("suite.version", version);
         addTag(version);
 
@@ -114,7 +152,58 @@ public class KieServerTestConfig extends TestConfig {
         this.name = name;
     }
 
+    public boolean isEmbedded() {
+        return embedded;
+    }
+
+    public void setEmbedded(boolean embedded) {
+        this.embedded = embedded;
+    }
+
+    public MarshallingFormat getMarshallingFormat() {
+        return marshallingFormat;
+    }
+
+    public void setMarshallingFormat(MarshallingFormat marshallingFormat) {
+        this.marshallingFormat = marshallingFormat;
+    }
+
+    public boolean isMarshallingMetrics() {
+        return marshallingMetrics;
+    }
+
+    public void setMarshallingMetrics(boolean marshallingMetrics) {
+        this.marshallingMetrics = marshallingMetrics;
+    }
+
+    public boolean isAsyncStart() {
+        return asyncStart;
+    }
+
+    public void setAsyncStart(boolean asyncStart) {
+        this.asyncStart = asyncStart;
+    }
+
+    public int getAsyncStartMaxConnections() {
+        return asyncStartMaxConnections;
+    }
+
+    public void setAsyncStartMaxConnections(int asyncStartMaxConnections) {
+        this.asyncStartMaxConnections = asyncStartMaxConnections;
+    }
+
+    public int getAsyncStartMaxInFlight() {
+        return asyncStartMaxInFlight;
+    }
+
+    public void setAsyncStartMaxInFlight(int asyncStartMaxInFlight) {
+        this.asyncStartMaxInFlight = asyncStartMaxInFlight;
+    }
+
     public String getApplicationUrl() {
+        if (embedded) {
+            return "http://localhost:" + port + "/server";
+        }
         return "http://" + host + ":" + port + "/" + name + "/services/rest/server";
     }
 
@@ -0,0 +1,105 @@
+package org.kie.perf.kieserver;
+
+import java.nio.charset.Charset;
+import java.util.Set;
+
+import org.kie.server.api.marshalling.Marshaller;
+import org.kie.server.api.marshalling.MarshallerFactory;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Measures client side cost of the marshalling format used by scenario
+ * requests and responses. Payloads are marshalled (and responses unmarshalled
+ * back) by the same marshaller the client uses, recording payload sizes in
+ * bytes and marshal/unmarshal durations. Sizes are of the re-marshalled
+ * payloads (without the <code>ServiceResponse</code> envelope, HTTP headers
+ * or JMS message properties), not of what was sent over the wire. Does
+ * nothing unless
+ * <code>kieserver.marshallingMetrics</code> is enabled, as the probe repeats
+ * the client work.
+ */
+public class MarshallingProbe {
+
+    protected static final Logger log = LoggerFactory.getLogger(MarshallingProbe.class);
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final Marshaller marshaller;
+
+    private Histogram requestBytes;
+    private Histogram responseBytes;
+    private Timer marshalDuration;
+    private Timer unmarshalDuration;
+    private Counter errors;
+
+    MarshallingProbe(MarshallingFormat format, Set<Class<?>> jaxbClasses) {
+        if (KieServerTestConfig.getInstance().isMarshallingMetrics()) {
+            marshaller = MarshallerFactory.getMarshaller(jaxbClasses, format, MarshallingProbe.class.getClassLoader());
+        } else {
+            marshaller = null;
+        }
+    }
+
+    public void registerMetrics(MetricRegistry metrics, Class<?> scenario) {
+        if (marshaller == null) {
+            return;
+        }
+        requestBytes = metrics.histogram(MetricRegistry.name(scenario, "marshalling.request.bytes"));
+        responseBytes = metrics.histogram(MetricRegistry.name(scenario, "marshalling.response.bytes"));
+        marshalDuration = metrics.timer(MetricRegistry.name(scenario, "marshalling.marshal.duration"));
+        unmarshalDuration = metrics.timer(MetricRegistry.name(scenario, "marshalling.unmarshal.duration"));
+        errors = metrics.counter(MetricRegistry.name(scenario, "marshalling.errors"));
+    }
+
+    /**
+     * Records size and marshal time of a request payload.
+     */
+    public void request(Object payload) {
+        if (marshaller == null || payload == null) {
+            return;
+        }
+        try {
+            Timer.Context context = marshalDuration.time();
+            String marshalled = marshaller.marshall(payload);
+            context.stop();
+            requestBytes.update(marshalled.getBytes(UTF8).length);
+        } catch (RuntimeException e) {
+            failed(payload, e);
+        }
+    }
+
+    /**
+     * Records size and unmarshal time of a response payload. The payload is the
+     * result unwrapped by the client, so the recorded size excludes the
+     * <code>ServiceResponse</code> envelope.
+     */
+    public void response(Object payload) {
+        if (marshaller == null || payload == null) {
+            return;
+        }
+        try {
+            String marshalled = marshaller.marshall(payload);
+            responseBytes.update(marshalled.getBytes(UTF8).length);
+            Timer.Context context = unmarshalDuration.time();
+            marshaller.unmarshall(marshalled, payload.getClass());
+            context.stop();
+        } catch (RuntimeException e) {
+            failed(payload, e);
+        }
+    }
+
+    private void failed(Object payload, RuntimeException e) {
+        if (errors.getCount() == 0) {
+            log.warn("Unable to marshal " + payload.getClass().getName() + " with " + marshaller.getFormat(), e);
+        }
+        errors.inc();
+    }
+
+}
@@ -7,11 +7,13 @@ import org.kie.api.runtime.manager.audit.ProcessInstanceLog;
 import org.kie.api.task.TaskService;
 import org.kie.perf.SharedMetricRegistry;
 import org.kie.perf.kieserver.KieServerClient;
+import org.kie.perf.kieserver.MarshallingProbe;
 import org.kie.perf.kieserver.constant.ProcessStorage;
 import org.kie.perf.kieserver.constant.UserStorage;
 import org.kie.perf.scenario.IPerfTest;
 import org.kie.server.api.model.instance.ProcessInstance;
 import org.kie.server.api.model.instance.TaskSummary;
+import org.kie.server.api.model.instance.TaskSummaryList;
 import org.kie.server.client.ProcessServicesClient;
 import org.kie.server.client.QueryServicesClient;
 import org.kie.server.client.UserTaskServicesClient;
@@ -35,12 +37,15 @@ public class LServerGroupHumanTaskProcess implements IPerfTest {
     private UserTaskServicesClient taskClient;
     private QueryServicesClient queryClient;
 
+    private MarshallingProbe probe;
+
     @Override
     public void init() {
         client = new KieServerClient(UserStorage.EngUser.getUserId(), UserStorage.EngUser.getPassword());
         processClient = client.getProcessClient();
         taskClient = client.getTaskClient();
         queryClient = client.getQueryClient();
+        probe = client.newMarshallingProbe();
     }
 
     @Override
@@ -52,6 +57,7 @@ public class LServerGroupHumanTaskProcess implements IPerfTest {
         claimTaskDuration = metrics.timer(MetricRegistry.name(LServerGroupHumanTaskProcess.class, "scenario.task.claim.duration"));
         startTaskDuration = metrics.timer(MetricRegistry.name(LServerGroupHumanTaskProcess.class, "scenario.task.start.duration"));
         completeTaskDuration = metrics.timer(MetricRegistry.name(LServerGroupHumanTaskProcess.class, "scenario.task.complete.duration"));
+        probe.registerMetrics(metrics, LServerGroupHumanTaskProcess.class);
     }
 
     @Override
@@ -61,12 +67,14 @@ public class LServerGroupHumanTaskProcess implements IPerfTest {
         context = startProcess.time();
         Long pid = processClient.startProcess(KieServerClient.containerId, ProcessStorage.GroupHumanTask.getProcessDefinitionId());
         context.stop();
+        probe.response(pid);
 
         context = queryTaskDuration.time();
         List<String> status = new ArrayList<String>();
         List<TaskSummary> tasks = taskClient.findTasksByStatusByProcessInstanceId(pid, status, 0, 1);
         Long taskSummaryId = tasks.get(0).getId();
         context.stop();
+        probe.response(new TaskSummaryList(tasks));
 
         context = claimTaskDuration.time();
         taskClient.claimTask(KieServerClient.containerId, taskSummaryId, UserStorage.EngUser.getUserId());
@@ -81,6 +89,7 @@ public class LServerGroupHumanTaskProcess implements IPerfTest {
         context.stop();
 
         ProcessInstance plog = queryClient.findProcessInstanceById(pid);
+        probe.response(plog);
 
         if (plog != null && plog.getState() == org.kie.api.runtime.process.ProcessInstance.STATE_COMPLETED) {
             completedProcess.mark();
@@ -5,11 +5,13 @@ import java.util.List;
 
 import org.kie.perf.SharedMetricRegistry;
 import org.kie.perf.kieserver.KieServerClient;
+import org.kie.perf.kieserver.MarshallingProbe;
 import org.kie.perf.kieserver.constant.ProcessStorage;
 import org.kie.perf.kieserver.constant.UserStorage;
 import org.kie.perf.scenario.IPerfTest;
 import org.kie.server.api.model.instance.ProcessInstance;
 import org.kie.server.api.model.instance.TaskSummary;
+import org.kie.server.api.model.instance.TaskSummaryList;
 import org.kie.server.client.ProcessServicesClient;
 import org.kie.server.client.QueryServicesClient;
 import org.kie.server.client.UserTaskServicesClient;
@@ -33,12 +35,15 @@ public class LServerHumanTaskProcess implements IPerfTest {
     private UserTaskServicesClient taskClient;
     private QueryServicesClient queryClient;
 
+    private MarshallingProbe probe;
+
     @Override
     public void init() {
     	client = new KieServerClient();
     	processClient = client.getProcessClient();
         taskClient = client.getTaskClient();
         queryClient = client.getQueryClient();
+        probe = client.newMarshallingProbe();
     }
 
     @Override
@@ -50,6 +55,7 @@ public class LServerHumanTaskProcess implements IPerfTest {
         completeTaskDuration = metrics.timer(MetricRegistry.name(LServerHumanTaskProcess.class, "scenario.task.complete.duration"));
         queryProcessInstanceDuration = metrics.timer(MetricRegistry.name(LServerHumanTaskProcess.class, "scenario.process.query.duration"));
         completedProcess = metrics.meter(MetricRegistry.name(LServerHumanTaskProcess.class, "scenario.process.completed"));
+        probe.registerMetrics(metrics, LServerHumanTaskProcess.class);
     }
 
     @Override
@@ -59,12 +65,14 @@ public class LServerHumanTaskProcess implements IPerfTest {
         context = startProcess.time();
         long pid = processClient.startProcess(KieServerClient.containerId, ProcessStorage.HumanTask.getProcessDefinitionId());
         context.stop();
+        probe.response(pid);
 
         context = queryTaskDuration.time();
         List<String> status = new ArrayList<String>();
         List<TaskSummary> tasks = taskClient.findTasksByStatusByProcessInstanceId(pid, status, 0, 1);
         Long taskSummaryId = tasks.get(0).getId();
         context.stop();
+        probe.response(new TaskSummaryList(tasks));
 
         context = startTaskDuration.time();
         taskClient.startTask(KieServerClient.containerId, taskSummaryId, UserStorage.PerfUser.getUserId());
@@ -77,6 +85,7 @@ public class LServerHumanTaskProcess implements IPerfTest {
         context = queryProcessInstanceDuration.time();
         ProcessInstance plog = queryClient.findProcessInstanceById(pid);
         context.stop();
+        probe.response(plog);
 
         if (plog != null && plog.getState() == org.kie.api.runtime.process.ProcessInstance.STATE_COMPLETED) {
             completedProcess.mark();
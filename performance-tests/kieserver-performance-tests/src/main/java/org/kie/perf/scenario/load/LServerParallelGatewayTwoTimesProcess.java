@@ -2,6 +2,7 @@ package org.kie.perf.scenario.load;
 
 import org.kie.perf.SharedMetricRegistry;
 import org.kie.perf.kieserver.KieServerClient;
+import org.kie.perf.kieserver.MarshallingProbe;
 import org.kie.perf.kieserver.constant.ProcessStorage;
 import org.kie.perf.scenario.IPerfTest;
 import org.kie.server.api.model.instance.ProcessInstance;
@@ -10,9 +11,11 @@ import org.kie.server.client.QueryServicesClient;
 
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 
 public class LServerParallelGatewayTwoTimesProcess implements IPerfTest {
 
+    private Timer startProcess;
     private Meter completedProcess;
 
     private KieServerClient client;
@@ -20,23 +23,32 @@ public class LServerParallelGatewayTwoTimesProcess implements IPerfTest {
     private ProcessServicesClient processClient;
     private QueryServicesClient queryClient;
 
+    private MarshallingProbe probe;
+
     @Override
     public void init() {
     	client = new KieServerClient();
     	processClient = client.getProcessClient();
         queryClient = client.getQueryClient();
+        probe = client.newMarshallingProbe();
     }
 
     @Override
     public void initMetrics() {
         MetricRegistry metrics = SharedMetricRegistry.getInstance();
+        startProcess = metrics.timer(MetricRegistry.name(LServerParallelGatewayTwoTimesProcess.class, "scenario.process.start.duration"));
         completedProcess = metrics.meter(MetricRegistry.name(LServerParallelGatewayTwoTimesProcess.class, "scenario.process.completed"));
+        probe.registerMetrics(metrics, LServerParallelGatewayTwoTimesProcess.class);
     }
 
     @Override
     public void execute() {
+        Timer.Context context = startProcess.time();
         Long pid = processClient.startProcess(KieServerClient.containerId, ProcessStorage.ParallelGatewayTwoTimes.getProcessDefinitionId());
+        context.stop();
+        probe.response(pid);
         ProcessInstance pi = queryClient.findProcessInstanceById(pid);
+        probe.response(pi);
         if (pi != null && pi.getState() == org.kie.api.runtime.process.ProcessInstance.STATE_COMPLETED) {
             completedProcess.mark();
         }
@@ -6,6 +6,7 @@ import java.util.Map;
 import org.kie.perf.SharedMetricRegistry;
 import org.kie.perf.jbpm.model.UserFact;
 import org.kie.perf.kieserver.KieServerClient;
+import org.kie.perf.kieserver.MarshallingProbe;
 import org.kie.perf.kieserver.constant.ProcessStorage;
 import org.kie.perf.scenario.IPerfTest;
 import org.kie.server.api.model.instance.ProcessInstance;
@@ -14,9 +15,11 @@ import org.kie.server.client.QueryServicesClient;
 
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 
 public class LServerRuleTaskProcess implements IPerfTest {
 
+    private Timer startProcess;
     private Meter completedProcess;
 
     private KieServerClient client;
@@ -24,25 +27,35 @@ public class LServerRuleTaskProcess implements IPerfTest {
     private ProcessServicesClient processClient;
     private QueryServicesClient queryClient;
 
+    private MarshallingProbe probe;
+
     @Override
     public void init() {
     	client = new KieServerClient(UserFact.class);
     	processClient = client.getProcessClient();
         queryClient = client.getQueryClient();
+        probe = client.newMarshallingProbe();
     }
 
     @Override
     public void initMetrics() {
         MetricRegistry metrics = SharedMetricRegistry.getInstance();
+        startProcess = metrics.timer(MetricRegistry.name(LServerRuleTaskProcess.class, "scenario.process.start.duration"));
         completedProcess = metrics.meter(MetricRegistry.name(LServerRuleTaskProcess.class, "scenario.process.completed"));
+        probe.registerMetrics(metrics, LServerRuleTaskProcess.class);
     }
 
     @Override
     public void execute() {
         Map<String, Object> params = new HashMap<String, Object>();
         params.put("user", new UserFact("user", 15));
+        probe.request(params);
+        Timer.Context context = startProcess.time();
         Long pid = processClient.startProcess(KieServerClient.containerId, ProcessStorage.RuleTask.getProcessDefinitionId(), params);
+        context.stop();
+        probe.response(pid);
         ProcessInstance pi = queryClient.findProcessInstanceById(pid);
+        probe.response(pi);
         if (pi != null && pi.getState() == org.kie.api.runtime.process.ProcessInstance.STATE_COMPLETED) {
             completedProcess.mark();
         }
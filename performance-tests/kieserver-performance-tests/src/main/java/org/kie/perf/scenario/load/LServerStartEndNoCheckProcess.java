@@ -1,35 +1,73 @@
 package org.kie.perf.scenario.load;
 
+import org.kie.perf.SharedMetricRegistry;
+import org.kie.perf.kieserver.AsyncProcessStarter;
 import org.kie.perf.kieserver.KieServerClient;
+import org.kie.perf.kieserver.KieServerTestConfig;
+import org.kie.perf.kieserver.MarshallingProbe;
 import org.kie.perf.kieserver.constant.ProcessStorage;
 import org.kie.perf.scenario.IPerfTest;
 import org.kie.server.client.ProcessServicesClient;
 
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * Starts processes without checking their state. With
+ * <code>kieserver.asyncStart</code> the starts are fire-and-forget (see
+ * {@link AsyncProcessStarter}) and completed instances are counted when the
+ * scenario is closed.
+ */
 public class LServerStartEndNoCheckProcess implements IPerfTest {
 
     private KieServerClient client;
     
     private ProcessServicesClient processClient;
 
+    private MarshallingProbe probe;
+
+    private AsyncProcessStarter asyncStarter;
+
+    private Meter completedProcess;
+
     @Override
     public void init() {
     	client = new KieServerClient();
     	processClient = client.getProcessClient();
+        probe = client.newMarshallingProbe();
+        KieServerTestConfig config = KieServerTestConfig.getInstance();
+        if (config.isAsyncStart()) {
+            asyncStarter = new AsyncProcessStarter(client, ProcessStorage.StartEnd.getProcessDefinitionId(),
+                    config.getAsyncStartMaxConnections(), config.getAsyncStartMaxInFlight());
+        }
     }
 
     @Override
     public void initMetrics() {
-        
+        MetricRegistry metrics = SharedMetricRegistry.getInstance();
+        probe.registerMetrics(metrics, LServerStartEndNoCheckProcess.class);
+        if (asyncStarter != null) {
+            asyncStarter.registerMetrics(metrics, LServerStartEndNoCheckProcess.class);
+            completedProcess = metrics.meter(MetricRegistry.name(LServerStartEndNoCheckProcess.class, "scenario.process.completed"));
+        }
     }
 
     @Override
     public void execute() {
-        processClient.startProcess(KieServerClient.containerId, ProcessStorage.StartEnd.getProcessDefinitionId());
+        if (asyncStarter != null) {
+            asyncStarter.start();
+            return;
+        }
+        Long pid = processClient.startProcess(KieServerClient.containerId, ProcessStorage.StartEnd.getProcessDefinitionId());
+        probe.response(pid);
     }
 
     @Override
     public void close() {
-
+        if (asyncStarter != null) {
+            completedProcess.mark(asyncStarter.verify());
+            asyncStarter = null;
+        }
     }
 
 }
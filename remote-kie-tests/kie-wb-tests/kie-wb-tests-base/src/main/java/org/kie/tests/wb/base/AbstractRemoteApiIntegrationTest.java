@@ -8,6 +8,7 @@ import java.net.URL;
 
 import org.jboss.arquillian.junit.InSequence;
 import org.jboss.arquillian.test.api.ArquillianResource;
+import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Assume;
 import org.junit.Before;
@@ -70,6 +71,13 @@ public abstract class AbstractRemoteApiIntegrationTest {
     private final static int JMS_SUCCEEDING = 9;
     private final static int JMS_RANDOM = 10;
 
+    @After
+    public void closeJmsClients() {
+        if( jmsTests != null ) {
+            jmsTests.closeJmsClients();
+        }
+    }
+
     @AfterClass
     public static void waitForTxOnServer() throws InterruptedException {
         long sleep = 1000;
@@ -378,6 +386,14 @@ public abstract class AbstractRemoteApiIntegrationTest {
         jmsTests.queueCommandsStartProcess(MARY_USER, MARY_PASSWORD);
     }
 
+    @Test
+    @InSequence(JMS_RANDOM)
+    public void testJmsQueuePipelinedCommandsStartProcess() throws Exception {
+        Assume.assumeTrue(jmsQueuesAvailable());
+        printTestName();
+        jmsTests.queuePipelinedCommandsStartProcess(MARY_USER, MARY_PASSWORD, 100, 10);
+    }
+
     @Test
     @InSequence(JMS_RANDOM)
     public void testJmsRemoteApiHumanTaskProcess() throws Exception {
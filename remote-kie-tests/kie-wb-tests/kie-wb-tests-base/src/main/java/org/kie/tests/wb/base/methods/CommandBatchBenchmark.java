@@ -0,0 +1,275 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * 
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.tests.wb.base.methods;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.kie.tests.wb.base.util.TestConstants.HUMAN_TASK_PROCESS_ID;
+import static org.kie.tests.wb.base.util.TestConstants.HUMAN_TASK_VAR_PROCESS_ID;
+import static org.kie.tests.wb.base.util.TestConstants.MARY_USER;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.remote.client.jaxb.ClientJaxbSerializationProvider;
+import org.kie.remote.client.jaxb.JaxbCommandsRequest;
+import org.kie.remote.client.jaxb.JaxbCommandsResponse;
+import org.kie.remote.jaxb.gen.CompleteTaskCommand;
+import org.kie.remote.jaxb.gen.GetTasksByProcessInstanceIdCommand;
+import org.kie.remote.jaxb.gen.SignalEventCommand;
+import org.kie.remote.jaxb.gen.StartProcessCommand;
+import org.kie.remote.jaxb.gen.StartTaskCommand;
+import org.kie.services.client.serialization.JaxbSerializationProvider;
+import org.kie.services.client.serialization.jaxb.impl.JaxbCommandResponse;
+import org.kie.services.client.serialization.jaxb.impl.JaxbLongListResponse;
+import org.kie.services.client.serialization.jaxb.rest.JaxbExceptionResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures how the number of commands per {@link JaxbCommandsRequest} influences throughput, payload size and
+ * serialization time.
+ * <p>
+ * For every batch size, the same number of commands is sent for each {@link Operation}: processes are started, their
+ * first human task is started and completed, and process instances waiting on a signal (the
+ * <code>HumanTaskWithForm</code> process after its task is completed) are signalled. The transport (REST
+ * <code>execute</code> or the JMS queues) is supplied by the caller.
+ */
+public class CommandBatchBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommandBatchBenchmark.class);
+
+    public static final int [] BATCH_SIZES = { 1, 10, 100, 1000 };
+
+    public static final String SIGNAL_TYPE = "MySignal";
+
+    public static enum Operation {
+        START_PROCESS, COMPLETE_TASK, SIGNAL;
+    }
+
+    /**
+     * Sends a request over the transport being benchmarked.
+     */
+    public static interface CommandSender {
+
+        JaxbCommandsResponse send( JaxbCommandsRequest req, boolean useKsessionQueue ) throws Exception;
+    }
+
+    public static class Result {
+
+        private final String transport;
+        private final Operation operation;
+        private final int batchSize;
+
+        private int commands = 0;
+        private int requests = 0;
+        private long payloadBytes = 0;
+        private long serializationNanos = 0;
+        private long roundTripNanos = 0;
+
+        private Result(String transport, Operation operation, int batchSize) {
+            this.transport = transport;
+            this.operation = operation;
+            this.batchSize = batchSize;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public double getCommandsPerSecond() {
+            return commands / (roundTripNanos / 1000000000.0);
+        }
+
+        public double getRequestsPerSecond() {
+            return requests / (roundTripNanos / 1000000000.0);
+        }
+
+        public long getAveragePayloadBytes() {
+            return payloadBytes / requests;
+        }
+
+        public double getAverageSerializationMillis() {
+            return serializationNanos / 1000000.0 / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-5s %-14s K=%-5d %5d cmds %5d reqs %10.1f cmd/s %8.1f req/s %9d bytes/req %8.3f ms ser/req",
+                    transport, operation, batchSize, commands, requests, getCommandsPerSecond(), getRequestsPerSecond(),
+                    getAveragePayloadBytes(), getAverageSerializationMillis());
+        }
+    }
+
+    private final String transport;
+    private final String deploymentId;
+    private final String taskUserId;
+    private final CommandSender sender;
+
+    private final JaxbSerializationProvider serializationProvider = ClientJaxbSerializationProvider.newInstance();
+
+    public CommandBatchBenchmark(String transport, String deploymentId, String taskUserId, CommandSender sender) {
+        this.transport = transport;
+        this.deploymentId = deploymentId;
+        this.taskUserId = taskUserId;
+        this.sender = sender;
+    }
+
+    /**
+     * Runs all operations for each of the {@link #BATCH_SIZES}.
+     * 
+     * @param numCommands the number of commands per operation and batch size (rounded up to a multiple of the batch
+     *            size)
+     */
+    public List<Result> runAll( int numCommands ) throws Exception {
+        List<Result> results = new ArrayList<Result>();
+        for( int batchSize : BATCH_SIZES ) {
+            results.addAll(run(batchSize, numCommands));
+        }
+        StringBuilder report = new StringBuilder("Command batching results:");
+        for( Result result : results ) {
+            report.append("\n  ").append(result);
+        }
+        logger.info(report.toString());
+        return results;
+    }
+
+    public List<Result> run( int batchSize, int numCommands ) throws Exception {
+        int numRequests = (numCommands + batchSize - 1) / batchSize;
+        List<Result> results = new ArrayList<Result>(Operation.values().length);
+
+        // start processes
+        Result result = new Result(transport, Operation.START_PROCESS, batchSize);
+        List<Long> procInstIds = startProcesses(HUMAN_TASK_PROCESS_ID, batchSize, numRequests, result);
+        results.add(result);
+
+        // start and complete tasks: each task counts as one command (although 2 commands are sent)
+        result = new Result(transport, Operation.COMPLETE_TASK, batchSize);
+        completeTasks(getTaskIds(procInstIds, batchSize, numRequests), taskUserId, batchSize, numRequests, result);
+        results.add(result);
+
+        // signal process instances waiting after their task (setup not measured)
+        procInstIds = startProcesses(HUMAN_TASK_VAR_PROCESS_ID, batchSize, numRequests, null);
+        completeTasks(getTaskIds(procInstIds, batchSize, numRequests), MARY_USER, batchSize, numRequests, null);
+        result = new Result(transport, Operation.SIGNAL, batchSize);
+        for( int r = 0; r < numRequests; ++r ) {
+            JaxbCommandsRequest req = new JaxbCommandsRequest();
+            req.setDeploymentId(deploymentId);
+            for( Long procInstId : procInstIds.subList(r * batchSize, (r + 1) * batchSize) ) {
+                SignalEventCommand cmd = new SignalEventCommand();
+                cmd.setProcessInstanceId(procInstId);
+                cmd.setEventType(SIGNAL_TYPE);
+                req.getCommands().add(cmd);
+            }
+            send(req, true, result);
+        }
+        results.add(result);
+
+        return results;
+    }
+
+    private List<Long> startProcesses( String processId, int batchSize, int numRequests, Result result ) throws Exception {
+        List<Long> procInstIds = new ArrayList<Long>(numRequests * batchSize);
+        for( int r = 0; r < numRequests; ++r ) {
+            JaxbCommandsRequest req = new JaxbCommandsRequest();
+            req.setDeploymentId(deploymentId);
+            for( int i = 0; i < batchSize; ++i ) {
+                StartProcessCommand cmd = new StartProcessCommand();
+                cmd.setProcessId(processId);
+                req.getCommands().add(cmd);
+            }
+            for( JaxbCommandResponse<?> cmdResponse : send(req, true, result) ) {
+                procInstIds.add(((ProcessInstance) cmdResponse).getId());
+            }
+        }
+        assertEquals("Started " + processId + " process instances", numRequests * batchSize, procInstIds.size());
+        return procInstIds;
+    }
+
+    /**
+     * Retrieves the first task of every process instance (not measured).
+     */
+    private List<Long> getTaskIds( List<Long> procInstIds, int batchSize, int numRequests ) throws Exception {
+        List<Long> taskIds = new ArrayList<Long>(procInstIds.size());
+        for( int r = 0; r < numRequests; ++r ) {
+            JaxbCommandsRequest req = new JaxbCommandsRequest();
+            req.setDeploymentId(deploymentId);
+            for( Long procInstId : procInstIds.subList(r * batchSize, (r + 1) * batchSize) ) {
+                GetTasksByProcessInstanceIdCommand cmd = new GetTasksByProcessInstanceIdCommand();
+                cmd.setProcessInstanceId(procInstId);
+                req.getCommands().add(cmd);
+            }
+            for( JaxbCommandResponse<?> cmdResponse : send(req, false, null) ) {
+                taskIds.add(((JaxbLongListResponse) cmdResponse).getResult().get(0));
+            }
+        }
+        return taskIds;
+    }
+
+    private void completeTasks( List<Long> taskIds, String userId, int batchSize, int numRequests, Result result ) throws Exception {
+        for( int r = 0; r < numRequests; ++r ) {
+            JaxbCommandsRequest req = new JaxbCommandsRequest();
+            req.setDeploymentId(deploymentId);
+            for( Long taskId : taskIds.subList(r * batchSize, (r + 1) * batchSize) ) {
+                StartTaskCommand startCmd = new StartTaskCommand();
+                startCmd.setTaskId(taskId);
+                startCmd.setUserId(userId);
+                req.getCommands().add(startCmd);
+                CompleteTaskCommand completeCmd = new CompleteTaskCommand();
+                completeCmd.setTaskId(taskId);
+                completeCmd.setUserId(userId);
+                req.getCommands().add(completeCmd);
+            }
+            send(req, false, result);
+        }
+    }
+
+    private List<JaxbCommandResponse<?>> send( JaxbCommandsRequest req, boolean useKsessionQueue, Result result ) throws Exception {
+        if( result != null ) {
+            long start = System.nanoTime();
+            String xml = serializationProvider.serialize(req);
+            result.serializationNanos += System.nanoTime() - start;
+            result.payloadBytes += xml.getBytes("UTF-8").length;
+        }
+
+        long start = System.nanoTime();
+        JaxbCommandsResponse response = sender.send(req, useKsessionQueue);
+        if( result != null ) {
+            result.roundTripNanos += System.nanoTime() - start;
+            result.commands += result.batchSize;
+            ++result.requests;
+        }
+
+        assertNotNull("Null commands response", response);
+        List<JaxbCommandResponse<?>> cmdResponses = response.getResponses();
+        if( cmdResponses == null ) {
+            cmdResponses = new ArrayList<JaxbCommandResponse<?>>();
+        }
+        for( JaxbCommandResponse<?> cmdResponse : cmdResponses ) {
+            assertFalse("Exception received: " + cmdResponse.getResult(), cmdResponse instanceof JaxbExceptionResponse);
+        }
+        return cmdResponses;
+    }
+
+}
@@ -58,15 +58,15 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
-import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.Message;
-import javax.jms.MessageConsumer;
-import javax.jms.MessageProducer;
 import javax.jms.Queue;
-import javax.jms.Session;
 import javax.jms.TextMessage;
 import javax.naming.InitialContext;
 import javax.naming.NamingException;
@@ -104,6 +104,9 @@ import org.kie.services.client.serialization.jaxb.impl.JaxbCommandResponse;
 import org.kie.services.client.serialization.jaxb.impl.JaxbLongListResponse;
 import org.kie.services.client.serialization.jaxb.impl.process.JaxbProcessInstanceResponse;
 import org.kie.tests.MyType;
+import org.kie.tests.wb.base.methods.CommandBatchBenchmark.CommandSender;
+import org.kie.tests.wb.base.util.PooledJmsClient;
+import org.kie.tests.wb.base.util.PooledJmsClient.ResponseListener;
 
 public class KieWbJmsIntegrationTestMethods implements IntegrationTestMethods {
 
@@ -115,10 +118,12 @@ public class KieWbJmsIntegrationTestMethods implements IntegrationTestMethods {
     private static final String RESPONSE_QUEUE_NAME = "jms/queue/KIE.RESPONSE";
 
     private static final long QUALITY_OF_SERVICE_THRESHOLD_MS = 5 * 1000;
+    private static final long BATCH_RESPONSE_TIMEOUT_MS = 60 * 1000;
 
     private final String deploymentId;
     private final InitialContext remoteInitialContext;
     private final JaxbSerializationProvider jaxbSerializationProvider = ClientJaxbSerializationProvider.newInstance();
+    private final ConcurrentMap<String, PooledJmsClient> jmsClients = new ConcurrentHashMap<String, PooledJmsClient>();
 
     public KieWbJmsIntegrationTestMethods(String deploymentId) {
        this(deploymentId, true, false);
@@ -203,11 +208,9 @@ public class KieWbJmsIntegrationTestMethods implements IntegrationTestMethods {
         return builder.build();
     }
     
-    public JaxbCommandsResponse implSpecificSendCommandRequest(JaxbCommandsRequest req, String USER,
-            String PASSWORD, boolean useKsessionQueue) throws Exception {
-        ConnectionFactory factory;
+    private ConnectionFactory getConnectionFactory() throws NamingException { 
         if( ! useSsl ) { 
-            factory = (ConnectionFactory) remoteInitialContext.lookup(CONNECTION_FACTORY_NAME);
+            return (ConnectionFactory) remoteInitialContext.lookup(CONNECTION_FACTORY_NAME);
         } else { 
             Map<String, Object> connParams = new HashMap<String, Object>();  
             connParams.put(TransportConstants.PORT_PROP_NAME, 5446);  
@@ -217,62 +220,83 @@ public class KieWbJmsIntegrationTestMethods implements IntegrationTestMethods {
             connParams.put(TransportConstants.KEYSTORE_PASSWORD_PROP_NAME, "CLIENT_KEYSTORE_PASSWORD");  
             connParams.put(TransportConstants.KEYSTORE_PATH_PROP_NAME, "ssl/client_keystore.jks");  
       
-            factory = new HornetQJMSConnectionFactory(false, 
+            return new HornetQJMSConnectionFactory(false, 
                     new TransportConfiguration(NettyConnectorFactory.class.getName(), connParams));
         }
+    }
+
+    /**
+     * Returns the (shared) {@link PooledJmsClient} for the given user, creating it on first use.
+     */
+    public PooledJmsClient getJmsClient(String user, String password) throws Exception { 
+        String key = user + ":" + password;
+        PooledJmsClient client = jmsClients.get(key);
+        if( client == null ) { 
+            PooledJmsClient newClient = new PooledJmsClient(getConnectionFactory(), remoteInitialContext, RESPONSE_QUEUE_NAME, user, password);
+            client = jmsClients.putIfAbsent(key, newClient);
+            if( client == null ) { 
+                client = newClient;
+            } else { 
+                // another thread won the race
+                newClient.close();
+            }
+        }
+        return client;
+    }
+
+    /**
+     * Closes the JMS clients (and their connections) used by {@link #implSpecificSendCommandRequest(JaxbCommandsRequest, String, String, boolean)}.
+     */
+    public void closeJmsClients() { 
+        for( String key : jmsClients.keySet() ) { 
+            PooledJmsClient client = jmsClients.remove(key);
+            if( client != null ) { 
+                client.close();
+            }
+        }
+    }
+
+    public Future<Message> sendCommandRequest(JaxbCommandsRequest req, String USER, String PASSWORD, boolean useKsessionQueue) 
+            throws Exception {
+        return sendCommandRequest(req, USER, PASSWORD, useKsessionQueue, null);
+    }
+
+    public Future<Message> sendCommandRequest(JaxbCommandsRequest req, String USER, String PASSWORD, boolean useKsessionQueue, 
+            ResponseListener listener) throws Exception {
         String sendQueueName;
         if( useKsessionQueue ) { 
             sendQueueName = KSESSION_QUEUE_NAME;
         } else { 
             sendQueueName = TASK_QUEUE_NAME;
         }
-        Queue jbpmQueue = (Queue) remoteInitialContext.lookup(sendQueueName);
-        Queue responseQueue = (Queue) remoteInitialContext.lookup(RESPONSE_QUEUE_NAME);
 
-        Connection connection = null;
-        Session session = null;
-        JaxbCommandsResponse cmdResponse = null;
-        try {
-            // setup
-            connection = factory.createConnection(USER, PASSWORD);
-            session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-
-            MessageProducer producer = session.createProducer(jbpmQueue);
-            String corrId = UUID.randomUUID().toString();
-            String selector = "JMSCorrelationID = '" + corrId + "'";
-            MessageConsumer consumer = session.createConsumer(responseQueue, selector);
-
-            connection.start();
-
-            // Create msg
-            String xmlStr = jaxbSerializationProvider.serialize(req);
-            TextMessage msg = session.createTextMessage(xmlStr);
-            msg.setJMSCorrelationID(corrId);
-            msg.setIntProperty("serialization", JaxbSerializationProvider.JMS_SERIALIZATION_TYPE);
-            msg.setStringProperty("username", MARY_USER);
-            msg.setStringProperty("password", MARY_PASSWORD);
-
-            // send
-            producer.send(msg);
-
-            // receive
-            Message response = consumer.receive(QUALITY_OF_SERVICE_THRESHOLD_MS);
-
-            // check
-            assertNotNull("Response is empty.", response);
-            assertEquals("Correlation id not equal to request msg id.", corrId, response.getJMSCorrelationID());
-            assertNotNull("Response from MDB was null!", response);
-            xmlStr = ((TextMessage) response).getText();
-            cmdResponse = (JaxbCommandsResponse) jaxbSerializationProvider.deserialize(xmlStr);
-            assertNotNull("Jaxb Cmd Response was null!", cmdResponse);
-        } finally {
-            if (connection != null) {
-                connection.close();
-                if( session != null ) { 
-                    session.close();
-                }
-            }
+        Map<String, Object> msgProps = new HashMap<String, Object>();
+        msgProps.put("serialization", JaxbSerializationProvider.JMS_SERIALIZATION_TYPE);
+        msgProps.put("username", MARY_USER);
+        msgProps.put("password", MARY_PASSWORD);
+
+        String xmlStr = jaxbSerializationProvider.serialize(req);
+        return getJmsClient(USER, PASSWORD).send(sendQueueName, xmlStr, msgProps, listener);
+    }
+
+    public JaxbCommandsResponse implSpecificSendCommandRequest(JaxbCommandsRequest req, String USER,
+            String PASSWORD, boolean useKsessionQueue) throws Exception {
+        Future<Message> future = sendCommandRequest(req, USER, PASSWORD, useKsessionQueue);
+
+        // receive
+        Message response;
+        try { 
+            response = future.get(QUALITY_OF_SERVICE_THRESHOLD_MS, TimeUnit.MILLISECONDS);
+        } catch( TimeoutException te ) { 
+            future.cancel(false);
+            response = null;
         }
+
+        // check
+        assertNotNull("Response is empty.", response);
+        String xmlStr = ((TextMessage) response).getText();
+        JaxbCommandsResponse cmdResponse = (JaxbCommandsResponse) jaxbSerializationProvider.deserialize(xmlStr);
+        assertNotNull("Jaxb Cmd Response was null!", cmdResponse);
         return cmdResponse;
     }
 
@@ -284,6 +308,51 @@ public class KieWbJmsIntegrationTestMethods implements IntegrationTestMethods {
         implSpecificSendCommandRequest(req, user, password, true);
     }
     
+    public void queuePipelinedCommandsStartProcess(String user, String password, int numRequests, int maxInFlight) throws Exception {
+        PipelinedJmsCommandSubmitter submitter = new PipelinedJmsCommandSubmitter(this, user, password, maxInFlight);
+        submitter.getLatencies().start();
+        for( int i = 0; i < numRequests; ++i ) { 
+            StartProcessCommand cmd = new StartProcessCommand();
+            cmd.setProcessId(SCRIPT_TASK_PROCESS_ID);
+            submitter.submit(new JaxbCommandsRequest(deploymentId, cmd), true);
+        }
+        boolean completed = submitter.awaitCompletion(numRequests * QUALITY_OF_SERVICE_THRESHOLD_MS / maxInFlight + QUALITY_OF_SERVICE_THRESHOLD_MS);
+        logger.info("Pipelined JMS start process ({} in flight): {}", maxInFlight, submitter.getLatencies().getSummary());
+        assertTrue("Not all requests were answered: " + submitter.getFailedCount() + " failed", completed);
+
+        List<JaxbCommandsResponse> responses = submitter.drainResponses(jaxbSerializationProvider);
+        assertEquals("Number of responses", numRequests, responses.size());
+        for( JaxbCommandsResponse response : responses ) { 
+            assertTrue("response did not contain any command responses", response.getResponses() != null
+                    && response.getResponses().size() > 0);
+            JaxbCommandResponse<?> cmdResponse = response.getResponses().get(0);
+            assertTrue("response is not the proper class type : " + cmdResponse.getClass().getSimpleName(),
+                    cmdResponse instanceof JaxbProcessInstanceResponse);
+        }
+    }
+
+    /**
+     * Sends the same number of commands via the KIE.SESSION and KIE.TASK queues with different numbers of commands per request.
+     *
+     * @see CommandBatchBenchmark
+     */
+    public void queueCommandsBatchBenchmark(final String user, final String password, int numCommands) throws Exception {
+        CommandBatchBenchmark benchmark = new CommandBatchBenchmark("JMS", deploymentId, SALA_USER, new CommandSender() {
+            public JaxbCommandsResponse send( JaxbCommandsRequest req, boolean useKsessionQueue ) throws Exception {
+                Future<Message> future = sendCommandRequest(req, user, password, useKsessionQueue);
+                Message response;
+                try { 
+                    response = future.get(BATCH_RESPONSE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                } catch( TimeoutException te ) { 
+                    future.cancel(false);
+                    throw te;
+                }
+                return (JaxbCommandsResponse) jaxbSerializationProvider.deserialize(((TextMessage) response).getText());
+            }
+        });
+        benchmark.runAll(numCommands);
+    }
+
     public void queueCommandsStartProcess(String user, String password) throws Exception {
         // send cmd: start process
         JaxbCommandsResponse response;
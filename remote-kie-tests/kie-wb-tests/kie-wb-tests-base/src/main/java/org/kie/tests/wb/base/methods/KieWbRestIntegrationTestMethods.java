@@ -148,6 +148,7 @@ import org.kie.services.client.serialization.jaxb.rest.JaxbExceptionResponse;
 import org.kie.services.client.serialization.jaxb.rest.JaxbGenericResponse;
 import org.kie.tests.MyBinaryType;
 import org.kie.tests.MyType;
+import org.kie.tests.wb.base.methods.CommandBatchBenchmark.CommandSender;
 import org.kie.tests.wb.base.util.TestConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -667,6 +668,21 @@ public class KieWbRestIntegrationTestMethods implements IntegrationTestMethods {
         this.contentType = originalType;
     }
 
+    /**
+     * Sends the same number of commands via /execute with different numbers of commands per request.
+     *
+     * @see CommandBatchBenchmark
+     */
+    public void urlsCommandsBatchBenchmark( URL deploymentUrl, final String user, final String password, int numCommands ) throws Exception {
+        setRestInfo(deploymentUrl, user, password);
+        CommandBatchBenchmark benchmark = new CommandBatchBenchmark("REST", deploymentId, taskUserId, new CommandSender() {
+            public JaxbCommandsResponse send( JaxbCommandsRequest req, boolean useKsessionQueue ) throws Exception {
+                return implSpecificSendCommandRequest(req, user, password);
+            }
+        });
+        benchmark.runAll(numCommands);
+    }
+
     public void urlsHistoryLogs( URL deploymentUrl, String user, String password ) throws Exception {
         setRestInfo(deploymentUrl, user, password);
 
@@ -0,0 +1,136 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * 
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.tests.wb.base.methods;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.Message;
+import javax.jms.TextMessage;
+
+import org.kie.remote.client.jaxb.JaxbCommandsRequest;
+import org.kie.remote.client.jaxb.JaxbCommandsResponse;
+import org.kie.services.client.serialization.JaxbSerializationProvider;
+import org.kie.tests.wb.base.util.LatencyRecorder;
+import org.kie.tests.wb.base.util.PooledJmsClient;
+import org.kie.tests.wb.base.util.PooledJmsClient.ResponseListener;
+
+/**
+ * Submits {@link JaxbCommandsRequest}s over JMS without waiting for each response, keeping at most
+ * <code>maxInFlight</code> requests outstanding. Responses are correlated by the (shared) response consumer of the
+ * {@link PooledJmsClient}, and the round-trip latency of each request is recorded in a {@link LatencyRecorder}.
+ */
+public class PipelinedJmsCommandSubmitter {
+
+    private final KieWbJmsIntegrationTestMethods jmsMethods;
+    private final String user;
+    private final String password;
+
+    private final int maxInFlight;
+    private final Semaphore window;
+
+    private final LatencyRecorder latencies = new LatencyRecorder();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Future<Message>> outstanding = new ConcurrentLinkedQueue<Future<Message>>();
+
+    public PipelinedJmsCommandSubmitter(KieWbJmsIntegrationTestMethods jmsMethods, String user, String password, int maxInFlight) {
+        this.jmsMethods = jmsMethods;
+        this.user = user;
+        this.password = password;
+        this.maxInFlight = maxInFlight;
+        this.window = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Sends the request, blocking only while <code>maxInFlight</code> requests are still waiting for a response.
+     */
+    public Future<Message> submit( JaxbCommandsRequest req, boolean useKsessionQueue ) throws Exception {
+        window.acquire();
+        final long start = System.nanoTime();
+        Future<Message> future;
+        try {
+            future = jmsMethods.sendCommandRequest(req, user, password, useKsessionQueue, new ResponseListener() {
+                public void onCompletion( Message response ) {
+                    if( response != null ) {
+                        latencies.record(System.nanoTime() - start);
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                    window.release();
+                }
+            });
+        } catch( Exception e ) {
+            failed.incrementAndGet();
+            window.release();
+            throw e;
+        }
+        outstanding.add(future);
+        return future;
+    }
+
+    /**
+     * Waits until all submitted requests have received a response. Requests still outstanding after the timeout are
+     * cancelled and counted as failed.
+     * 
+     * @return true if all requests completed within the timeout
+     */
+    public boolean awaitCompletion( long timeoutMs ) throws InterruptedException {
+        if( window.tryAcquire(maxInFlight, timeoutMs, TimeUnit.MILLISECONDS) ) {
+            window.release(maxInFlight);
+            return true;
+        }
+        for( Future<Message> future : outstanding ) {
+            future.cancel(false);
+        }
+        return false;
+    }
+
+    /**
+     * Returns the responses of all requests submitted so far (in submission order) and forgets about them; requests
+     * without a response are skipped. Call this after {@link #awaitCompletion(long)}.
+     */
+    public List<JaxbCommandsResponse> drainResponses( JaxbSerializationProvider serializationProvider ) throws Exception {
+        List<JaxbCommandsResponse> responses = new ArrayList<JaxbCommandsResponse>();
+        Future<Message> future;
+        while( (future = outstanding.poll()) != null ) {
+            if( future.isDone() && !future.isCancelled() ) {
+                String xmlStr = ((TextMessage) future.get()).getText();
+                responses.add((JaxbCommandsResponse) serializationProvider.deserialize(xmlStr));
+            }
+        }
+        return responses;
+    }
+
+    public int getInFlight() {
+        return maxInFlight - window.availablePermits();
+    }
+
+    public int getFailedCount() {
+        return failed.get();
+    }
+
+    public LatencyRecorder getLatencies() {
+        return latencies;
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * 
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.tests.wb.base.util;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records round-trip latencies (in nanoseconds) and reports percentiles, a coarse power-of-two histogram and the
+ * throughput over the recording period.
+ * <p>
+ * All values are kept, so this is meant for test runs of (at most) a few million requests.
+ */
+public class LatencyRecorder {
+
+    private long [] values = new long[1024];
+    private int count = 0;
+
+    private long startNanos = -1;
+    private long endNanos = -1;
+
+    /**
+     * Marks the start of the period used for the throughput.
+     */
+    public synchronized void start() {
+        startNanos = System.nanoTime();
+    }
+
+    public synchronized void record( long latencyNanos ) {
+        if( count == values.length ) {
+            values = Arrays.copyOf(values, count * 2);
+        }
+        values[count++] = latencyNanos;
+        endNanos = System.nanoTime();
+        if( startNanos < 0 ) {
+            startNanos = endNanos - latencyNanos;
+        }
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * @param percentile a value between 0 and 100
+     * @return the latency (in nanoseconds) at the given percentile, or 0 if nothing was recorded
+     */
+    public synchronized long getPercentile( double percentile ) {
+        if( count == 0 ) {
+            return 0;
+        }
+        long [] sorted = Arrays.copyOf(values, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.min(Math.max(index, 0), count - 1)];
+    }
+
+    public synchronized long getMean() {
+        if( count == 0 ) {
+            return 0;
+        }
+        long sum = 0;
+        for( int i = 0; i < count; ++i ) {
+            sum += values[i];
+        }
+        return sum / count;
+    }
+
+    /**
+     * @return completed requests per second between {@link #start()} (or the first request) and the last recorded
+     *         response
+     */
+    public synchronized double getThroughput() {
+        if( count == 0 || endNanos <= startNanos ) {
+            return 0;
+        }
+        return count / ((endNanos - startNanos) / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * @return the number of latencies per power-of-two millisecond bucket: index 0 holds latencies below 1 ms, index
+     *         <i>i</i> holds latencies between 2<sup>i-1</sup> and 2<sup>i</sup> ms
+     */
+    public synchronized int [] getHistogram() {
+        int [] buckets = new int[1];
+        for( int i = 0; i < count; ++i ) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(values[i]);
+            int bucket = millis == 0 ? 0 : 64 - Long.numberOfLeadingZeros(millis);
+            if( bucket >= buckets.length ) {
+                buckets = Arrays.copyOf(buckets, bucket + 1);
+            }
+            ++buckets[bucket];
+        }
+        return buckets;
+    }
+
+    public synchronized String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(count).append(" requests, ")
+            .append(String.format("%.1f", getThroughput())).append(" req/s, latency ms: mean=").append(toMillis(getMean()))
+            .append(" p50=").append(toMillis(getPercentile(50)))
+            .append(" p90=").append(toMillis(getPercentile(90)))
+            .append(" p99=").append(toMillis(getPercentile(99)))
+            .append(" max=").append(toMillis(getPercentile(100)));
+        int [] histogram = getHistogram();
+        summary.append("\n  histogram:");
+        for( int i = 0; i < histogram.length; ++i ) {
+            summary.append(i == 0 ? " <1ms=" : " <" + (1L << i) + "ms=").append(histogram[i]);
+        }
+        return summary.toString();
+    }
+
+    private static String toMillis( long nanos ) {
+        return String.format("%.2f", nanos / 1000000.0);
+    }
+
+}
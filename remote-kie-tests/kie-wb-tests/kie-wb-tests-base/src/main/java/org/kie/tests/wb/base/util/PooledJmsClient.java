@@ -0,0 +1,328 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * 
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.tests.wb.base.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Request/response JMS client that keeps its connection open between requests.
+ * <p>
+ * Requests are sent through a fixed pool of sessions (each with its own cached producers), and all responses are
+ * received by one long-lived consumer on the response queue which hands them to the waiting {@link Future} based on
+ * the JMSCorrelationID. The consumer selector only matches the correlation ids generated by this client, so other
+ * clients can keep using the same response queue.
+ * <p>
+ * The size of the session pool can be set with the <code>org.kie.tests.wb.jms.sessions</code> system property.
+ */
+public class PooledJmsClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledJmsClient.class);
+
+    public static final String SESSION_POOL_SIZE_PROPERTY = "org.kie.tests.wb.jms.sessions";
+
+    private final InitialContext context;
+    private final Connection connection;
+
+    private final ConcurrentMap<String, Queue> destinations = new ConcurrentHashMap<String, Queue>();
+    private final BlockingQueue<PooledSession> sessions;
+
+    private final Session responseSession;
+    private final MessageConsumer responseConsumer;
+    private final ConcurrentMap<String, ResponseFuture> pending = new ConcurrentHashMap<String, ResponseFuture>();
+
+    private final String correlationIdPrefix = UUID.randomUUID().toString() + ":";
+    private final AtomicLong correlationIdCounter = new AtomicLong();
+
+    private volatile boolean closed = false;
+
+    public PooledJmsClient(ConnectionFactory factory, InitialContext context, String responseQueueName, String user,
+            String password) throws JMSException, NamingException {
+        this(factory, context, responseQueueName, user, password, Integer.parseInt(System.getProperty(SESSION_POOL_SIZE_PROPERTY, "8")));
+    }
+
+    public PooledJmsClient(ConnectionFactory factory, InitialContext context, String responseQueueName, String user,
+            String password, int sessionPoolSize) throws JMSException, NamingException {
+        this.context = context;
+        this.connection = factory.createConnection(user, password);
+        try {
+            this.sessions = new ArrayBlockingQueue<PooledSession>(sessionPoolSize);
+            for( int i = 0; i < sessionPoolSize; ++i ) {
+                sessions.add(new PooledSession(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)));
+            }
+
+            String selector = "JMSCorrelationID LIKE '" + correlationIdPrefix + "%'";
+            this.responseSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            this.responseConsumer = responseSession.createConsumer(getQueue(responseQueueName), selector);
+            this.responseConsumer.setMessageListener(new MessageListener() {
+                public void onMessage( Message message ) {
+                    dispatch(message);
+                }
+            });
+
+            connection.start();
+        } catch( JMSException jmse ) {
+            connection.close();
+            throw jmse;
+        } catch( NamingException ne ) {
+            connection.close();
+            throw ne;
+        }
+    }
+
+    /**
+     * Sends a text message to the given queue.
+     * 
+     * @param queueName the JNDI name of the queue
+     * @param text the message body
+     * @param properties message properties to set on the message (may be null)
+     * @return a {@link Future} which is completed when the response with the same correlation id arrives
+     */
+    public Future<Message> send( String queueName, String text, Map<String, Object> properties ) throws JMSException,
+            NamingException, InterruptedException {
+        return send(queueName, text, properties, null);
+    }
+
+    /**
+     * Sends a text message to the given queue, notifying the listener once the request is done.
+     * 
+     * @param listener called (on the consumer thread) when the response arrives or the request is cancelled (may be null)
+     * @see #send(String, String, Map)
+     */
+    public Future<Message> send( String queueName, String text, Map<String, Object> properties, ResponseListener listener )
+            throws JMSException, NamingException, InterruptedException {
+        if( closed ) {
+            throw new IllegalStateException(PooledJmsClient.class.getSimpleName() + " has been closed");
+        }
+        Queue queue = getQueue(queueName);
+        String corrId = correlationIdPrefix + correlationIdCounter.incrementAndGet();
+        ResponseFuture future = new ResponseFuture(corrId, listener);
+        pending.put(corrId, future);
+
+        PooledSession pooledSession = sessions.take();
+        try {
+            TextMessage msg = pooledSession.session.createTextMessage(text);
+            msg.setJMSCorrelationID(corrId);
+            if( properties != null ) {
+                for( Entry<String, Object> property : properties.entrySet() ) {
+                    msg.setObjectProperty(property.getKey(), property.getValue());
+                }
+            }
+            pooledSession.getProducer(queue).send(msg);
+        } catch( JMSException jmse ) {
+            pending.remove(corrId);
+            throw jmse;
+        } finally {
+            sessions.put(pooledSession);
+        }
+        return future;
+    }
+
+    /**
+     * Sends a text message and waits for the response.
+     * 
+     * @return the response, or null if no response arrived within the timeout
+     */
+    public Message sendAndReceive( String queueName, String text, Map<String, Object> properties, long timeoutMs )
+            throws JMSException, NamingException, InterruptedException, ExecutionException {
+        Future<Message> future = send(queueName, text, properties);
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch( TimeoutException te ) {
+            future.cancel(false);
+            return null;
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public void close() {
+        if( closed ) {
+            return;
+        }
+        closed = true;
+        try {
+            connection.close();
+        } catch( JMSException jmse ) {
+            logger.warn("Unable to close JMS connection: {}", jmse.getMessage());
+        }
+        for( ResponseFuture future : pending.values() ) {
+            future.cancel(false);
+        }
+        pending.clear();
+    }
+
+    private Queue getQueue( String queueName ) throws NamingException {
+        Queue queue = destinations.get(queueName);
+        if( queue == null ) {
+            queue = (Queue) context.lookup(queueName);
+            Queue existing = destinations.putIfAbsent(queueName, queue);
+            if( existing != null ) {
+                queue = existing;
+            }
+        }
+        return queue;
+    }
+
+    private void dispatch( Message message ) {
+        String corrId;
+        try {
+            corrId = message.getJMSCorrelationID();
+        } catch( JMSException jmse ) {
+            logger.warn("Unable to retrieve correlation id from response: {}", jmse.getMessage());
+            return;
+        }
+        ResponseFuture future = corrId == null ? null : pending.remove(corrId);
+        if( future == null ) {
+            logger.debug("Dropping response with unknown or expired correlation id {}", corrId);
+            return;
+        }
+        future.complete(message);
+    }
+
+    /**
+     * Callback for requests sent with {@link PooledJmsClient#send(String, String, Map, ResponseListener)}.
+     */
+    public static interface ResponseListener {
+
+        /**
+         * @param response the response, or null if the request was cancelled before a response arrived
+         */
+        void onCompletion( Message response );
+    }
+
+    private static class PooledSession {
+
+        private final Session session;
+        private final Map<Queue, MessageProducer> producers = new HashMap<Queue, MessageProducer>();
+
+        private PooledSession(Session session) {
+            this.session = session;
+        }
+
+        private MessageProducer getProducer( Queue queue ) throws JMSException {
+            MessageProducer producer = producers.get(queue);
+            if( producer == null ) {
+                producer = session.createProducer(queue);
+                producers.put(queue, producer);
+            }
+            return producer;
+        }
+    }
+
+    private class ResponseFuture implements Future<Message> {
+
+        private final String corrId;
+        private final ResponseListener listener;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile Message response;
+        private volatile boolean cancelled = false;
+
+        private ResponseFuture(String corrId, ResponseListener listener) {
+            this.corrId = corrId;
+            this.listener = listener;
+        }
+
+        private void complete( Message message ) {
+            this.response = message;
+            done.countDown();
+            notifyListener(message);
+        }
+
+        private void notifyListener( Message message ) {
+            if( listener == null ) {
+                return;
+            }
+            try {
+                listener.onCompletion(message);
+            } catch( RuntimeException re ) {
+                logger.warn("Response listener for correlation id " + corrId + " failed", re);
+            }
+        }
+
+        public boolean cancel( boolean mayInterruptIfRunning ) {
+            if( pending.remove(corrId) == null ) {
+                return false;
+            }
+            cancelled = true;
+            done.countDown();
+            notifyListener(null);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        public Message get() throws InterruptedException, ExecutionException {
+            done.await();
+            return getResponse();
+        }
+
+        public Message get( long timeout, TimeUnit unit ) throws InterruptedException, ExecutionException,
+                TimeoutException {
+            if( !done.await(timeout, unit) ) {
+                throw new TimeoutException("No response received for correlation id " + corrId);
+            }
+            return getResponse();
+        }
+
+        private Message getResponse() throws ExecutionException {
+            if( cancelled ) {
+                throw new CancellationException("Request " + corrId + " was cancelled");
+            }
+            return response;
+        }
+    }
+
+}
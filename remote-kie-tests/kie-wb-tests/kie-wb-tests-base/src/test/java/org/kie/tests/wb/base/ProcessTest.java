@@ -228,7 +228,11 @@ public class ProcessTest extends JbpmJUnitBaseTestCase {
         RuntimeEngine runtimeEngine = runtimeManager.getRuntimeEngine(null);
 
         KieWbJmsIntegrationTestMethods jmsTests = new KieWbJmsIntegrationTestMethods("blah", false, false);
-        jmsTests.remoteApiGroupAssignmentEngineering(runtimeEngine);
+        try { 
+            jmsTests.remoteApiGroupAssignmentEngineering(runtimeEngine);
+        } finally { 
+            jmsTests.closeJmsClients();
+        }
     }
     
     @Test
@@ -0,0 +1,61 @@
+package org.kie.tests.wb.live;
+
+import static org.kie.tests.wb.base.util.TestConstants.KJAR_DEPLOYMENT_ID;
+import static org.kie.tests.wb.base.util.TestConstants.MARY_PASSWORD;
+import static org.kie.tests.wb.base.util.TestConstants.MARY_USER;
+
+import java.net.URL;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.kie.remote.tests.base.unit.GetIgnoreRule;
+import org.kie.remote.tests.base.unit.GetIgnoreRule.IgnoreIfGETFails;
+import org.kie.tests.wb.base.methods.KieWbJmsIntegrationTestMethods;
+import org.kie.tests.wb.base.methods.KieWbRestIntegrationTestMethods;
+
+/**
+ * Runs the {@link org.kie.tests.wb.base.methods.CommandBatchBenchmark} against a running kie-wb instance.
+ */
+public class CommandBatchLiveTest {
+
+    @Rule
+    public GetIgnoreRule getIgnoreRule = new GetIgnoreRule();
+
+    private static final int NUM_COMMANDS = 1000;
+
+    private static URL deploymentUrl;
+    static {
+        // Modify this string to match your kie-wb/BPMS installation
+        String urlString = "http://localhost:8080/kie-wb/";
+        try {
+            deploymentUrl = new URL(urlString);
+        } catch( Exception e ) {
+            System.err.println( "The following URL is not a valid URL: '" + urlString + "'");
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    @IgnoreIfGETFails(getUrl="http://localhost:8080/kie-wb/rest/deployment")
+    public void restCommandBatching() throws Exception {
+        KieWbRestIntegrationTestMethods restTests = KieWbRestIntegrationTestMethods.newBuilderInstance()
+                .setDeploymentId(KJAR_DEPLOYMENT_ID)
+                .setMediaType(MediaType.APPLICATION_XML)
+                .build();
+        restTests.urlsCommandsBatchBenchmark(deploymentUrl, MARY_USER, MARY_PASSWORD, NUM_COMMANDS);
+    }
+
+    @Test
+    @IgnoreIfGETFails(getUrl="http://localhost:8080/kie-wb/rest/deployment")
+    public void jmsCommandBatching() throws Exception {
+        KieWbJmsIntegrationTestMethods jmsTests = new KieWbJmsIntegrationTestMethods(KJAR_DEPLOYMENT_ID);
+        try {
+            jmsTests.queueCommandsBatchBenchmark(MARY_USER, MARY_PASSWORD, NUM_COMMANDS);
+        } finally {
+            jmsTests.closeJmsClients();
+        }
+    }
+
+}
@@ -0,0 +1,276 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.remote.tests.base;
+
+import static org.kie.remote.tests.base.RestUtil.createBaseUriString;
+import static org.kie.remote.tests.base.RestUtil.createResponseHandler;
+import static org.kie.remote.tests.base.RestUtil.logAndFail;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.core.HttpHeaders;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.kie.remote.tests.base.handler.AbstractResponseHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Non-blocking variant of {@link RestUtil}. Requests are sent by one asynchronous HTTP client, the number of requests
+ * in flight (including received responses waiting for deserialization) is bounded by a window: when it is full, the
+ * calling thread waits until a response is handled. The responses
+ * are deserialized by the same handlers as in {@link RestUtil}, but on a separate worker pool so that the IO threads
+ * are never blocked.
+ * <p>
+ * Configured by system properties:<ul>
+ * <li><code>org.kie.remote.tests.rest.async.maxInFlight</code>: size of the window (default 1000)</li>
+ * <li><code>org.kie.remote.tests.rest.async.maxConnections</code>: max connections (per route too, default 100)</li>
+ * <li><code>org.kie.remote.tests.rest.async.workers</code>: deserialization threads (default number of processors)</li>
+ * </ul>
+ */
+public class AsyncRestUtil {
+
+    private static Logger logger = LoggerFactory.getLogger(AsyncRestUtil.class);
+
+    public static final String MAX_IN_FLIGHT_PROPERTY = "org.kie.remote.tests.rest.async.maxInFlight";
+    public static final String MAX_CONNECTIONS_PROPERTY = "org.kie.remote.tests.rest.async.maxConnections";
+    public static final String WORKERS_PROPERTY = "org.kie.remote.tests.rest.async.workers";
+
+    private static CloseableHttpAsyncClient httpClient;
+    private static ExecutorService workers;
+    private static Semaphore window;
+
+    private AsyncRestUtil() {
+        // static methods only
+    }
+
+    // Configuration --------------------------------------------------------------------------------------------------------------
+
+    private static synchronized CloseableHttpAsyncClient getClient() {
+        if( httpClient == null ) {
+            int maxConnections = Integer.getInteger(MAX_CONNECTIONS_PROPERTY, 100);
+            int workerCount = Integer.getInteger(WORKERS_PROPERTY, Runtime.getRuntime().availableProcessors());
+            window = new Semaphore(Integer.getInteger(MAX_IN_FLIGHT_PROPERTY, 1000));
+            workers = Executors.newFixedThreadPool(workerCount, new ThreadFactory() {
+                private final AtomicInteger counter = new AtomicInteger();
+
+                @Override
+                public Thread newThread( Runnable r ) {
+                    Thread thread = new Thread(r, "async-rest-handler-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+            // @formatter:off
+            httpClient = HttpAsyncClients.custom()
+                    .setMaxConnTotal(maxConnections)
+                    .setMaxConnPerRoute(maxConnections)
+                    .build();
+            // @formatter:on
+            httpClient.start();
+        }
+        return httpClient;
+    }
+
+    /**
+     * Closes the client and stops the deserialization workers, the next request starts new ones.
+     */
+    public static synchronized void shutdown() {
+        if( httpClient != null ) {
+            try {
+                httpClient.close();
+            } catch( IOException ioe ) {
+                logger.warn("Unable to close async http client: " + ioe.getMessage());
+            }
+            workers.shutdown();
+        }
+        httpClient = null;
+        workers = null;
+        window = null;
+    }
+
+    // Execution ------------------------------------------------------------------------------------------------------------------
+
+    private static <T> Future<T> execute( final String op, final HttpUriRequest request, final ResponseHandler<T> rh ) {
+        CloseableHttpAsyncClient client = getClient();
+        final Semaphore requestWindow;
+        final ExecutorService requestWorkers;
+        synchronized( AsyncRestUtil.class ) {
+            requestWindow = window;
+            requestWorkers = workers;
+        }
+
+        final String uriStr = request.getURI().toString();
+        final BasicFuture<T> result = new BasicFuture<T>(null);
+        try {
+            requestWindow.acquire();
+        } catch( InterruptedException ie ) {
+            Thread.currentThread().interrupt();
+            result.failed(ie);
+            return result;
+        }
+
+        logger.debug("[" + op + "] " + uriStr + " (async)");
+        client.execute(request, new FutureCallback<HttpResponse>() {
+
+            @Override
+            public void completed( final HttpResponse response ) {
+                // the request stays in the window until its response is deserialized
+                try {
+                    requestWorkers.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                result.completed(rh.handleResponse(response));
+                            } catch( Exception e ) {
+                                result.failed(e);
+                            } catch( AssertionError ae ) {
+                                result.failed(new IllegalStateException("Failed retrieving response from [" + op + "] " + uriStr
+                                        + ": " + ae.getMessage(), ae));
+                            } finally {
+                                requestWindow.release();
+                            }
+                        }
+                    });
+                } catch( RejectedExecutionException ree ) {
+                    requestWindow.release();
+                    result.failed(ree);
+                }
+            }
+
+            @Override
+            public void failed( Exception ex ) {
+                requestWindow.release();
+                result.failed(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                requestWindow.release();
+                result.cancel();
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Waits for the result of the request and fails the test when the request failed.
+     */
+    public static <T> T getResult( Future<T> future ) {
+        try {
+            return future.get();
+        } catch( Exception e ) {
+            logAndFail("Asynchronous request failed", e);
+        }
+
+        // never happens
+        return null;
+    }
+
+    private static <R extends HttpUriRequest> R addHeaders( R request, String mediaType, String user, String password ) {
+        request.addHeader(HttpHeaders.ACCEPT, mediaType);
+        request.addHeader(HttpHeaders.AUTHORIZATION, RestTransport.basicAuthenticationHeader(user, password));
+        return request;
+    }
+
+    // REST methods -------------------------------------------------------------------------------------------------------------
+
+    public static <T> Future<T> get( URL deploymentUrl, String relativeUrl, String mediaType, int status, String user,
+            String password, Class... responseTypes ) {
+        String uriStr = createBaseUriString(deploymentUrl, relativeUrl);
+        ResponseHandler<T> rh = createResponseHandler(mediaType, status, responseTypes);
+
+        return execute("GET", addHeaders(new HttpGet(uriStr), mediaType, user, password), rh);
+    }
+
+    public static <T> Future<T> getQuery( URL deploymentUrl, String relativeUrl, String mediaType, int status, String user,
+            String password, Map<String, String> queryParams, Class... responseTypes ) {
+        URI uri = null;
+        try {
+            URIBuilder uriBuilder = new URIBuilder(createBaseUriString(deploymentUrl, relativeUrl));
+            for( Entry<String, String> paramEntry : queryParams.entrySet() ) {
+                uriBuilder.addParameter(paramEntry.getKey(), paramEntry.getValue());
+            }
+            uri = uriBuilder.build();
+        } catch( URISyntaxException urise ) {
+            logAndFail("Invalid uri :" + deploymentUrl.toString(), urise);
+        }
+        ResponseHandler<T> rh = createResponseHandler(mediaType, status, responseTypes);
+
+        return execute("GET", addHeaders(new HttpGet(uri), mediaType, user, password), rh);
+    }
+
+    public static <T> Future<T> post( URL deploymentUrl, String relativeUrl, String mediaType, int status, String user,
+            String password, Class<T>... responseTypes ) {
+        String uriStr = createBaseUriString(deploymentUrl, relativeUrl);
+        ResponseHandler<T> rh = createResponseHandler(mediaType, status, responseTypes);
+
+        return execute("POST", addHeaders(new HttpPost(uriStr), mediaType, user, password), rh);
+    }
+
+    public static <T> Future<T> postEntity( URL deploymentUrl, String relativeUrl, String mediaType, int status, String user,
+            String password, Object entity, Class<T>... responseTypes ) {
+        String uriStr = createBaseUriString(deploymentUrl, relativeUrl);
+        ResponseHandler<T> rh = createResponseHandler(mediaType, status, responseTypes);
+
+        String entityStr = ((AbstractResponseHandler) rh).serialize(entity);
+        HttpPost request = addHeaders(new HttpPost(uriStr), mediaType, user, password);
+        request.addHeader(HttpHeaders.CONTENT_TYPE, mediaType);
+        try {
+            request.setEntity(new StringEntity(entityStr));
+        } catch( UnsupportedEncodingException uee ) {
+            logAndFail("Unable to encode serialized " + entity.getClass().getSimpleName() + " entity", uee);
+        }
+
+        return execute("POST", request, rh);
+    }
+
+    public static <T> Future<T> delete( URL deploymentUrl, String relativeUrl, String mediaType, int status, String user,
+            String password, Class... responseTypes ) {
+        String uriStr = createBaseUriString(deploymentUrl, relativeUrl);
+        ResponseHandler<T> rh = createResponseHandler(mediaType, status, responseTypes);
+
+        return execute("DELETE", addHeaders(new HttpDelete(uriStr), mediaType, user, password), rh);
+    }
+
+}
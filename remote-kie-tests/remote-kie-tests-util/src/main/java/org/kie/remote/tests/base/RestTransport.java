@@ -0,0 +1,335 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.remote.tests.base;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.fluent.Executor;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.client.fluent.Response;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Transport used by {@link RestUtil}: one shared HTTP client with a sized pool of persistent (keep-alive) connections
+ * and cached Basic authentication headers.
+ * <p>
+ * The pool is configured by system properties:<ul>
+ * <li><code>org.kie.remote.tests.rest.pooled</code>: use the pool (default true), otherwise every request goes through
+ * the default fluent executor as before</li>
+ * <li><code>org.kie.remote.tests.rest.maxConnections</code>: max connections in total (default 200)</li>
+ * <li><code>org.kie.remote.tests.rest.maxConnectionsPerRoute</code>: max connections per host (default 50)</li>
+ * <li><code>org.kie.remote.tests.rest.keepAliveMillis</code>: how long an idle connection is kept when the server does
+ * not say otherwise (default 30000)</li>
+ * <li><code>org.kie.remote.tests.rest.connectionRequestTimeoutMillis</code>: how long a request waits for a free
+ * connection before it fails (default 10000)</li>
+ * </ul>
+ * Lease times and pool statistics are logged when the transport is shut down (also at JVM exit).
+ * HTTP pipelining is not supported, neither by this client nor by {@link AsyncRestUtil}.
+ */
+public class RestTransport {
+
+    private static Logger logger = LoggerFactory.getLogger(RestTransport.class);
+
+    public static final String POOLED_PROPERTY = "org.kie.remote.tests.rest.pooled";
+    public static final String MAX_CONNECTIONS_PROPERTY = "org.kie.remote.tests.rest.maxConnections";
+    public static final String MAX_CONNECTIONS_PER_ROUTE_PROPERTY = "org.kie.remote.tests.rest.maxConnectionsPerRoute";
+    public static final String KEEP_ALIVE_PROPERTY = "org.kie.remote.tests.rest.keepAliveMillis";
+    public static final String CONNECTION_REQUEST_TIMEOUT_PROPERTY = "org.kie.remote.tests.rest.connectionRequestTimeoutMillis";
+
+    private static final Map<String, String> authHeaders = new ConcurrentHashMap<String, String>();
+
+    private static final LeaseStats leaseStats = new LeaseStats();
+
+    private static PoolingHttpClientConnectionManager connectionManager;
+    private static CloseableHttpClient httpClient;
+    private static Executor executor;
+    private static boolean shutdownHookAdded = false;
+
+    private RestTransport() {
+        // static methods only
+    }
+
+    // Configuration --------------------------------------------------------------------------------------------------------------
+
+    private static synchronized Executor getExecutor() {
+        if( executor == null ) {
+            if( ! Boolean.parseBoolean(System.getProperty(POOLED_PROPERTY, "true")) ) {
+                return null;
+            }
+            int maxTotal = Integer.getInteger(MAX_CONNECTIONS_PROPERTY, 200);
+            int maxPerRoute = Integer.getInteger(MAX_CONNECTIONS_PER_ROUTE_PROPERTY, 50);
+            final long keepAlive = Long.getLong(KEEP_ALIVE_PROPERTY, 30000);
+            int connectionRequestTimeout = Integer.getInteger(CONNECTION_REQUEST_TIMEOUT_PROPERTY, 10000);
+
+            connectionManager = new PoolingHttpClientConnectionManager();
+            connectionManager.setMaxTotal(maxTotal);
+            connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+
+            ConnectionKeepAliveStrategy keepAliveStrategy = new DefaultConnectionKeepAliveStrategy() {
+                @Override
+                public long getKeepAliveDuration( HttpResponse response, HttpContext context ) {
+                    long duration = super.getKeepAliveDuration(response, context);
+                    return duration > 0 ? duration : keepAlive;
+                }
+            };
+
+            // @formatter:off
+            httpClient = HttpClients.custom()
+                    .setConnectionManager(new LeaseTimingConnectionManager(connectionManager, leaseStats))
+                    .setKeepAliveStrategy(keepAliveStrategy)
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                            .setConnectionRequestTimeout(connectionRequestTimeout)
+                            .build())
+                    .build();
+            // @formatter:on
+            executor = Executor.newInstance(httpClient);
+            logger.debug("Pooled REST transport: {} connections, {} per route", maxTotal, maxPerRoute);
+            if( ! shutdownHookAdded ) {
+                Runtime.getRuntime().addShutdownHook(new Thread("rest-transport-stats") {
+                    @Override
+                    public void run() {
+                        logStats();
+                    }
+                });
+                shutdownHookAdded = true;
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Closes the pooled connections, the next request creates a new pool (re-reading the configuration).
+     */
+    public static synchronized void shutdown() {
+        logStats();
+        if( httpClient != null ) {
+            try {
+                httpClient.close();
+            } catch( IOException ioe ) {
+                logger.warn("Unable to close http client: " + ioe.getMessage());
+            }
+        }
+        httpClient = null;
+        connectionManager = null;
+        executor = null;
+    }
+
+    // Transport ------------------------------------------------------------------------------------------------------------------
+
+    public static Response execute( Request request ) throws IOException {
+        Executor exec = getExecutor();
+        if( exec == null ) {
+            return request.execute();
+        }
+        return exec.execute(request);
+    }
+
+    public static String basicAuthenticationHeader( String user, String password ) {
+        String token = user + ":" + password;
+        String header = authHeaders.get(token);
+        if( header == null ) {
+            try {
+                header = "BASIC " + DatatypeConverter.printBase64Binary(token.getBytes("UTF-8"));
+            } catch( UnsupportedEncodingException ex ) {
+                throw new IllegalStateException("Cannot encode with UTF-8", ex);
+            }
+            authHeaders.put(token, header);
+        }
+        return header;
+    }
+
+    // Statistics -----------------------------------------------------------------------------------------------------------------
+
+    public static LeaseStats getLeaseStats() {
+        return leaseStats;
+    }
+
+    /**
+     * @return statistics of the connection pool or null when the pool is not used
+     */
+    public static synchronized PoolStats getPoolStats() {
+        if( connectionManager == null ) {
+            return null;
+        }
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * Logs lease times and the connection pool statistics, if the pool has been used.
+     */
+    public static synchronized void logStats() {
+        if( leaseStats.getLeases() == 0 ) {
+            return;
+        }
+        PoolStats poolStats = getPoolStats();
+        logger.info("REST transport {}, pool: {}", leaseStats, poolStats != null ? poolStats : "closed");
+    }
+
+    /**
+     * Times spent waiting for a connection from the pool and holding it.
+     */
+    public static class LeaseStats {
+
+        private final AtomicLong leases = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private final AtomicLong totalHeldNanos = new AtomicLong();
+
+        void leased( long waitNanos ) {
+            leases.incrementAndGet();
+            totalWaitNanos.addAndGet(waitNanos);
+            long max = maxWaitNanos.get();
+            while( waitNanos > max && ! maxWaitNanos.compareAndSet(max, waitNanos) ) {
+                max = maxWaitNanos.get();
+            }
+        }
+
+        void released( long heldNanos ) {
+            totalHeldNanos.addAndGet(heldNanos);
+        }
+
+        public long getLeases() {
+            return leases.get();
+        }
+
+        public double getMeanWaitMillis() {
+            long count = leases.get();
+            return count == 0 ? 0 : totalWaitNanos.get() / 1000000d / count;
+        }
+
+        public double getMaxWaitMillis() {
+            return maxWaitNanos.get() / 1000000d;
+        }
+
+        public double getMeanHeldMillis() {
+            long count = leases.get();
+            return count == 0 ? 0 : totalHeldNanos.get() / 1000000d / count;
+        }
+
+        public void reset() {
+            leases.set(0);
+            totalWaitNanos.set(0);
+            maxWaitNanos.set(0);
+            totalHeldNanos.set(0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("leases: %d, wait mean/max: %.3f/%.3f ms, held mean: %.3f ms",
+                    getLeases(), getMeanWaitMillis(), getMaxWaitMillis(), getMeanHeldMillis());
+        }
+    }
+
+    private static class LeaseTimingConnectionManager implements HttpClientConnectionManager {
+
+        private final HttpClientConnectionManager delegate;
+        private final LeaseStats stats;
+        private final Map<HttpClientConnection, Long> leaseStarts = new ConcurrentHashMap<HttpClientConnection, Long>();
+
+        LeaseTimingConnectionManager( HttpClientConnectionManager delegate, LeaseStats stats ) {
+            this.delegate = delegate;
+            this.stats = stats;
+        }
+
+        @Override
+        public ConnectionRequest requestConnection( HttpRoute route, Object state ) {
+            final ConnectionRequest request = delegate.requestConnection(route, state);
+            return new ConnectionRequest() {
+                @Override
+                public boolean cancel() {
+                    return request.cancel();
+                }
+
+                @Override
+                public HttpClientConnection get( long timeout, TimeUnit tunit ) throws InterruptedException,
+                        ExecutionException, ConnectionPoolTimeoutException {
+                    long start = System.nanoTime();
+                    HttpClientConnection conn = request.get(timeout, tunit);
+                    long leased = System.nanoTime();
+                    stats.leased(leased - start);
+                    leaseStarts.put(conn, leased);
+                    return conn;
+                }
+            };
+        }
+
+        @Override
+        public void releaseConnection( HttpClientConnection conn, Object newState, long validDuration, TimeUnit timeUnit ) {
+            Long leased = leaseStarts.remove(conn);
+            if( leased != null ) {
+                stats.released(System.nanoTime() - leased);
+            }
+            delegate.releaseConnection(conn, newState, validDuration, timeUnit);
+        }
+
+        @Override
+        public void connect( HttpClientConnection conn, HttpRoute route, int connectTimeout, HttpContext context )
+                throws IOException {
+            delegate.connect(conn, route, connectTimeout, context);
+        }
+
+        @Override
+        public void upgrade( HttpClientConnection conn, HttpRoute route, HttpContext context ) throws IOException {
+            delegate.upgrade(conn, route, context);
+        }
+
+        @Override
+        public void routeComplete( HttpClientConnection conn, HttpRoute route, HttpContext context ) throws IOException {
+            delegate.routeComplete(conn, route, context);
+        }
+
+        @Override
+        public void closeIdleConnections( long idletime, TimeUnit tunit ) {
+            delegate.closeIdleConnections(idletime, tunit);
+        }
+
+        @Override
+        public void closeExpiredConnections() {
+            delegate.closeExpiredConnections();
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+    }
+
+}
@@ -29,7 +29,6 @@ import java.util.Map.Entry;
 
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
-import javax.xml.bind.DatatypeConverter;
 
 import org.apache.http.HttpEntity;
 import org.apache.http.client.ResponseHandler;
@@ -49,19 +48,21 @@ public class RestUtil {
 
     private static Logger logger = LoggerFactory.getLogger(RestUtil.class);
 
+    /**
+     * Logs lease and pool statistics of the pooled transport and closes its connections.
+     */
+    public static void shutdown() {
+        RestTransport.shutdown();
+    }
+
     // Helper methods -------------------------------------------------------------------------------------------------------------
 
     private static String basicAuthenticationHeader( String user, String password ) {
-        String token = user + ":" + password;
-        try {
-            return "BASIC " + DatatypeConverter.printBase64Binary(token.getBytes("UTF-8"));
-        } catch( UnsupportedEncodingException ex ) {
-            throw new IllegalStateException("Cannot encode with UTF-8", ex);
-        }
+        return RestTransport.basicAuthenticationHeader(user, password);
     }
 
     @SuppressWarnings("unchecked")
-    private static <T> ResponseHandler<T> createResponseHandler( String mediaType, int status, Class... responseTypes ) {
+    static <T> ResponseHandler<T> createResponseHandler( String mediaType, int status, Class... responseTypes ) {
         ResponseHandler<T> rh = null;
         if( MediaType.APPLICATION_XML.equals(mediaType) ) {
             rh = new XmlResponseHandler(status, responseTypes);
@@ -73,7 +74,7 @@ public class RestUtil {
         return rh;
     }
 
-    private static String createBaseUriString(URL deploymentUrl, String relativeUrl) {
+    static String createBaseUriString(URL deploymentUrl, String relativeUrl) {
         String uriStr = null;
         try {
             uriStr = deploymentUrl.toURI() + relativeUrl;
@@ -115,7 +116,7 @@ public class RestUtil {
         Response resp = null;
         try {
             logOp("GET", uriStr);
-            resp = request.execute();
+            resp = RestTransport.execute(request);
         } catch( Exception e ) {
             logAndFail("[GET] " + uriStr, e);
         }
@@ -164,7 +165,7 @@ public class RestUtil {
         Response resp = null;
         try {
             logOp("GET", uriStr);
-            resp = request.execute();
+            resp = RestTransport.execute(request);
         } catch( Exception e ) {
             logAndFail("[GET] " + uriStr, e);
         }
@@ -211,7 +212,7 @@ public class RestUtil {
         Response resp = null;
         try {
             logOp("POST", entity, uriStr);
-            resp = request.execute();
+            resp = RestTransport.execute(request);
         } catch( Exception e ) {
             logAndFail("[GET] " + uriStr, e);
         }
@@ -251,7 +252,7 @@ public class RestUtil {
         Response resp = null;
         try {
             logOp("POST", entity, uriStr);
-            resp = request.execute();
+            resp = RestTransport.execute(request);
         } catch( Exception e ) {
             logAndFail("[GET] " + uriStr, e);
         }
@@ -294,7 +295,7 @@ public class RestUtil {
         try {
             logOp("POST", entity, uriStr);
             before = System.currentTimeMillis();
-            resp = request.execute();
+            resp = RestTransport.execute(request);
             after = System.currentTimeMillis();
         } catch( Exception e ) {
             logAndFail("[GET] " + uriStr, e);
@@ -333,7 +334,7 @@ public class RestUtil {
         try {
             logOp("POST", uriStr);
             before = System.currentTimeMillis();
-            resp = request.execute();
+            resp = RestTransport.execute(request);
             after = System.currentTimeMillis();
         } catch( Exception e ) {
             logAndFail("[GET] " + uriStr, e);
@@ -369,7 +370,7 @@ public class RestUtil {
         Response resp = null;
         try {
             logOp("POST", uriStr);
-            resp = request.execute();
+            resp = RestTransport.execute(request);
         } catch( Exception e ) {
             logAndFail("[GET] " + uriStr, e);
         }
@@ -405,7 +406,7 @@ public class RestUtil {
         Response resp = null;
         try {
             logOp("POST", uriStr);
-            resp = request.execute();
+            resp = RestTransport.execute(request);
         } catch( Exception e ) {
             logAndFail("[GET] " + uriStr, e);
         }
@@ -436,7 +437,7 @@ public class RestUtil {
         Response resp = null;
         try {
             logOp("DELETE", uriStr);
-            resp = request.execute();
+            resp = RestTransport.execute(request);
         } catch( Exception e ) {
             logAndFail("[GET] " + uriStr, e);
         }
@@ -26,6 +26,11 @@ import org.slf4j.LoggerFactory;
 public abstract class AbstractResponseHandler<T,P> implements ResponseHandler<T> {
 
     protected static final Logger logger = LoggerFactory.getLogger(AbstractResponseHandler.class);
+
+    /**
+     * Max number of characters of the response logged at trace level
+     */
+    protected static final int TRACE_BUFFER_SIZE = 64 * 1024;
     
     protected final Class<T> returnType;
     protected Class<P> parameterType = null;
@@ -107,20 +112,43 @@ public abstract class AbstractResponseHandler<T,P> implements ResponseHandler<T>
             }
         } 
           
+        if( returnType == null ) {
+            // closing the content stream consumes the rest of the entity
+            reader.close();
+            return null;
+        }
+
+        BoundedTeeReader tee = null;
+        if( logger.isTraceEnabled() ) {
+            tee = new BoundedTeeReader(reader, TRACE_BUFFER_SIZE);
+            reader = tee;
+        }
+        try {
+            return deserialize(reader);
+        } finally {
+            reader.close();
+            if( tee != null ) {
+                traceContent(tee.getContent());
+            }
+        }
+    }
+
+    /**
+     * Deserializes the response directly from the entity stream. By default the content is read into a String and
+     * passed to {@link #deserialize(String)}.
+     */
+    protected T deserialize(Reader reader) throws IOException {
         char[] arr = new char[8 * 1024];
         StringBuilder buffer = new StringBuilder();
         int numCharsRead;
         while ((numCharsRead = reader.read(arr, 0, arr.length)) != -1) {
             buffer.append(arr, 0, numCharsRead);
         }
-        reader.close();
-        
-        if( returnType != null ) { 
-            return deserialize(buffer.toString());
-        } else { 
-            return null;
-        }
-                    
+        return deserialize(buffer.toString());
+    }
+
+    protected void traceContent(String content) {
+        logger.trace("< |\n{}", content);
     }
 
     protected abstract T deserialize(String content);
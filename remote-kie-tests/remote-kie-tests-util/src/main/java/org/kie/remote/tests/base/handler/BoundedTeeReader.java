@@ -0,0 +1,67 @@
+package org.kie.remote.tests.base.handler;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reader which keeps a copy of (at most the first <code>limit</code>) characters read, used to log the content of a
+ * response that is deserialized directly from the stream.
+ */
+public class BoundedTeeReader extends FilterReader {
+
+    private final StringBuilder copy;
+    private final int limit;
+    private boolean truncated = false;
+
+    public BoundedTeeReader(Reader in, int limit) {
+        super(in);
+        this.limit = limit;
+        this.copy = new StringBuilder(Math.min(limit, 8 * 1024));
+    }
+
+    @Override
+    public int read() throws IOException {
+        int c = super.read();
+        if( c != -1 ) {
+            append((char) c);
+        }
+        return c;
+    }
+
+    @Override
+    public int read( char[] cbuf, int off, int len ) throws IOException {
+        int n = super.read(cbuf, off, len);
+        if( n > 0 ) {
+            int free = limit - copy.length();
+            if( free > 0 ) {
+                copy.append(cbuf, off, Math.min(n, free));
+            }
+            if( n > free ) {
+                truncated = true;
+            }
+        }
+        return n;
+    }
+
+    private void append( char c ) {
+        if( copy.length() < limit ) {
+            copy.append(c);
+        } else {
+            truncated = true;
+        }
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    public String getContent() {
+        if( truncated ) {
+            return copy.toString() + "\n... [truncated after " + limit + " characters]";
+        }
+        return copy.toString();
+    }
+
+}
@@ -0,0 +1,212 @@
+package org.kie.remote.tests.base.handler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+/**
+ * Process-wide cache of {@link JAXBContext} instances keyed by the set of bound classes (order does not matter), so
+ * that the expensive {@link JAXBContext#newInstance(Class...)} is called only once per set of classes. The cache is
+ * bounded (least recently used contexts are dropped), see {@link #MAX_SIZE_PROPERTY}.
+ * <p>
+ * Marshallers and unmarshallers are not thread-safe, so they are cached per thread and context; a thread drops them
+ * once their context is evicted.
+ */
+public class JaxbContextCache {
+
+    public static final String MAX_SIZE_PROPERTY = "org.kie.remote.tests.jaxb.cache.size";
+
+    private static volatile int maxSize = Integer.getInteger(MAX_SIZE_PROPERTY, 64);
+
+    /**
+     * Incremented whenever a context leaves the cache, threads then drop their (un)marshallers of that context.
+     */
+    private static final AtomicInteger evictions = new AtomicInteger();
+
+    private static final Map<List<Class<?>>, JAXBContext> contexts = new LinkedHashMap<List<Class<?>>, JAXBContext>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry( Entry<List<Class<?>>, JAXBContext> eldest ) {
+            if( size() > maxSize ) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private static final ThreadLocal<ThreadCache<Marshaller>> marshallers = new ThreadLocal<ThreadCache<Marshaller>>() {
+        @Override
+        protected ThreadCache<Marshaller> initialValue() {
+            return new ThreadCache<Marshaller>();
+        }
+    };
+
+    private static final ThreadLocal<ThreadCache<Unmarshaller>> unmarshallers = new ThreadLocal<ThreadCache<Unmarshaller>>() {
+        @Override
+        protected ThreadCache<Unmarshaller> initialValue() {
+            return new ThreadCache<Unmarshaller>();
+        }
+    };
+
+    private static final Comparator<Class<?>> classNameComparator = new Comparator<Class<?>>() {
+        @Override
+        public int compare( Class<?> o1, Class<?> o2 ) {
+            return o1.getName().compareTo(o2.getName());
+        }
+    };
+
+    private JaxbContextCache() {
+        // static methods only
+    }
+
+    public static JAXBContext getContext( Class<?>... classes ) {
+        return getContext(Arrays.asList(classes));
+    }
+
+    public static JAXBContext getContext( Collection<? extends Class<?>> classes ) {
+        List<Class<?>> key = new ArrayList<Class<?>>(classes.size());
+        for( Class<?> clazz : classes ) {
+            if( clazz != null && ! key.contains(clazz) ) {
+                key.add(clazz);
+            }
+        }
+        Collections.sort(key, classNameComparator);
+        key = Collections.unmodifiableList(key);
+
+        JAXBContext jaxbContext;
+        synchronized( contexts ) {
+            jaxbContext = contexts.get(key);
+        }
+        if( jaxbContext == null ) {
+            // created outside of the lock, two threads may rarely create the same context
+            try {
+                jaxbContext = JAXBContext.newInstance(key.toArray(new Class[key.size()]));
+            } catch( JAXBException jaxbe ) {
+                throw new IllegalStateException("Unable to create JAXBContext", jaxbe);
+            }
+            synchronized( contexts ) {
+                JAXBContext existing = contexts.get(key);
+                if( existing != null ) {
+                    jaxbContext = existing;
+                } else {
+                    contexts.put(key, jaxbContext);
+                }
+            }
+        }
+        return jaxbContext;
+    }
+
+    public static Marshaller getMarshaller( JAXBContext jaxbContext ) {
+        ThreadCache<Marshaller> threadMarshallers = marshallers.get();
+        Marshaller marshaller = threadMarshallers.get(jaxbContext);
+        if( marshaller == null ) {
+            try {
+                marshaller = jaxbContext.createMarshaller();
+            } catch( JAXBException jaxbe ) {
+                throw new IllegalStateException("Unable to create marshaller", jaxbe);
+            }
+            threadMarshallers.put(jaxbContext, marshaller);
+        }
+        return marshaller;
+    }
+
+    public static Unmarshaller getUnmarshaller( JAXBContext jaxbContext ) {
+        ThreadCache<Unmarshaller> threadUnmarshallers = unmarshallers.get();
+        Unmarshaller unmarshaller = threadUnmarshallers.get(jaxbContext);
+        if( unmarshaller == null ) {
+            try {
+                unmarshaller = jaxbContext.createUnmarshaller();
+            } catch( JAXBException jaxbe ) {
+                throw new IllegalStateException("Unable to create unmarshaller", jaxbe);
+            }
+            threadUnmarshallers.put(jaxbContext, unmarshaller);
+        }
+        return unmarshaller;
+    }
+
+    public static int size() {
+        synchronized( contexts ) {
+            return contexts.size();
+        }
+    }
+
+    public static void clear() {
+        synchronized( contexts ) {
+            contexts.clear();
+        }
+        evictions.incrementAndGet();
+    }
+
+    static void setMaxSize( int size ) {
+        maxSize = size;
+    }
+
+    /**
+     * @return number of marshallers cached by the current thread
+     */
+    static int threadMarshallerCount() {
+        return marshallers.get().size();
+    }
+
+    /**
+     * Bounded LRU of (un)marshallers of one thread. Values reference their context, so entries of contexts evicted from
+     * the shared cache are removed explicitly (on the next access after an eviction).
+     */
+    private static class ThreadCache<T> {
+
+        private final Map<JAXBContext, T> entries = new LinkedHashMap<JAXBContext, T>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry( Entry<JAXBContext, T> eldest ) {
+                return size() > maxSize;
+            }
+        };
+
+        private int evictionsSeen = evictions.get();
+
+        T get( JAXBContext jaxbContext ) {
+            purge();
+            return entries.get(jaxbContext);
+        }
+
+        void put( JAXBContext jaxbContext, T value ) {
+            entries.put(jaxbContext, value);
+        }
+
+        int size() {
+            purge();
+            return entries.size();
+        }
+
+        private void purge() {
+            int current = evictions.get();
+            if( current == evictionsSeen ) {
+                return;
+            }
+            evictionsSeen = current;
+            Set<JAXBContext> live = Collections.newSetFromMap(new IdentityHashMap<JAXBContext, Boolean>());
+            synchronized( contexts ) {
+                live.addAll(contexts.values());
+            }
+            entries.keySet().retainAll(live);
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+package org.kie.remote.tests.base.handler;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectReader;
+import org.codehaus.jackson.map.ObjectWriter;
+import org.codehaus.jackson.type.JavaType;
+
+/**
+ * One {@link ObjectMapper} shared by all JSON handlers together with caches of the {@link JavaType},
+ * {@link ObjectReader} and {@link ObjectWriter} instances built for it, so that the serializers and deserializers are
+ * looked up only once per type.
+ * <p>
+ * The mapper must not be reconfigured once it is in use: readers and writers are immutable and thread-safe only as
+ * long as the mapper configuration does not change.
+ */
+public class JsonMapperRegistry {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final ConcurrentMap<List<Class<?>>, JavaType> types = new ConcurrentHashMap<List<Class<?>>, JavaType>();
+    private static final ConcurrentMap<JavaType, ObjectReader> readers = new ConcurrentHashMap<JavaType, ObjectReader>();
+    private static final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<Class<?>, ObjectWriter>();
+    private static final ConcurrentMap<Class<?>, ObjectWriter> prettyWriters = new ConcurrentHashMap<Class<?>, ObjectWriter>();
+
+    private JsonMapperRegistry() {
+        // static methods only
+    }
+
+    public static ObjectMapper getMapper() {
+        return mapper;
+    }
+
+    public static JavaType getType( Class<?> type ) {
+        return getType(type, null);
+    }
+
+    /**
+     * @param type raw type
+     * @param parameterType type parameter of the raw type or null
+     */
+    public static JavaType getType( Class<?> type, Class<?> parameterType ) {
+        List<Class<?>> key = Arrays.<Class<?>>asList(type, parameterType);
+        JavaType javaType = types.get(key);
+        if( javaType == null ) {
+            if( parameterType == null ) {
+                javaType = mapper.getTypeFactory().constructType(type);
+            } else {
+                javaType = mapper.getTypeFactory().constructParametricType(type, parameterType);
+            }
+            JavaType existing = types.putIfAbsent(key, javaType);
+            if( existing != null ) {
+                javaType = existing;
+            }
+        }
+        return javaType;
+    }
+
+    public static ObjectReader getReader( JavaType type ) {
+        ObjectReader reader = readers.get(type);
+        if( reader == null ) {
+            reader = mapper.reader(type);
+            ObjectReader existing = readers.putIfAbsent(type, reader);
+            if( existing != null ) {
+                reader = existing;
+            }
+        }
+        return reader;
+    }
+
+    public static ObjectWriter getWriter( Class<?> type ) {
+        ObjectWriter writer = writers.get(type);
+        if( writer == null ) {
+            writer = mapper.writerWithType(type);
+            ObjectWriter existing = writers.putIfAbsent(type, writer);
+            if( existing != null ) {
+                writer = existing;
+            }
+        }
+        return writer;
+    }
+
+    public static ObjectWriter getPrettyWriter( Class<?> type ) {
+        ObjectWriter writer = prettyWriters.get(type);
+        if( writer == null ) {
+            writer = mapper.writerWithType(type).withDefaultPrettyPrinter();
+            ObjectWriter existing = prettyWriters.putIfAbsent(type, writer);
+            if( existing != null ) {
+                writer = existing;
+            }
+        }
+        return writer;
+    }
+
+}
@@ -2,8 +2,10 @@ package org.kie.remote.tests.base.handler;
 
 import static org.kie.remote.tests.base.RestUtil.logAndFail;
 
+import java.io.Reader;
+import java.io.StringReader;
+
 import org.apache.http.entity.ContentType;
-import org.codehaus.jackson.map.ObjectMapper;
 import org.codehaus.jackson.type.JavaType;
 
 @SuppressWarnings("unchecked")
@@ -17,26 +19,23 @@ public class JsonResponseHandler<T,P> extends AbstractResponseHandler<T, P> {
         super(ContentType.APPLICATION_JSON, returnTypes);
     }
     
-    private final ObjectMapper om = new ObjectMapper();
-   
     @Override
     protected T deserialize(String content) {
+        return deserialize(new StringReader(content));
+    }
+
+    @Override
+    protected T deserialize(Reader reader) {
         if( parameterType == null ) { 
             try {
-                T obj =  om.readValue(content, returnType);
-                if( logger.isTraceEnabled() ) { 
-                   Object prettyPrintObj = om.readValue(content, Object.class);
-                   String prettyContent = om.writerWithDefaultPrettyPrinter().writeValueAsString(prettyPrintObj);
-                   logger.trace("JSON < |\n{}", prettyContent );
-                }
-                return obj;
+                return (T) JsonMapperRegistry.getReader(JsonMapperRegistry.getType(returnType)).readValue(reader);
             } catch( Exception e ) {
                logAndFail(returnType.getSimpleName() + " deserialization failed", e); 
             } 
         } else { 
-            JavaType genericsType = om.getTypeFactory().constructParametricType(this.returnType, this.parameterType);
+            JavaType genericsType = JsonMapperRegistry.getType(this.returnType, this.parameterType);
             try { 
-                return (T) om.readValue(content, genericsType);
+                return (T) JsonMapperRegistry.getReader(genericsType).readValue(reader);
             } catch( Exception e ) {
                logAndFail(returnType.getSimpleName() + "<" + parameterType.getSimpleName() + ">" + " deserialization failed", e); 
             } 
@@ -46,13 +45,18 @@ public class JsonResponseHandler<T,P> extends AbstractResponseHandler<T, P> {
         return null;
     }
 
+    @Override
+    protected void traceContent(String content) {
+        logger.trace("JSON < |\n{}", content );
+    }
+
     @Override
     public String serialize( Object entity ) {
         String out = null;
         try {
-            out = om.writeValueAsString(entity);
+            out = JsonMapperRegistry.getWriter(entity.getClass()).writeValueAsString(entity);
             if( logger.isTraceEnabled() ) { 
-                logger.trace("JSON > |\n{} ", om.writerWithDefaultPrettyPrinter().writeValueAsString(entity) );
+                logger.trace("JSON > |\n{} ", JsonMapperRegistry.getPrettyWriter(entity.getClass()).writeValueAsString(entity) );
             }
         } catch( Exception e ) {
             logAndFail(entity.getClass().getSimpleName() + " instance serialization failed", e); 
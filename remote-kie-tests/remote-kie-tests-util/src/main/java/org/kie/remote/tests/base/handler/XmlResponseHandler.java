@@ -2,8 +2,8 @@ package org.kie.remote.tests.base.handler;
 
 import static org.junit.Assert.assertTrue;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -15,17 +15,21 @@ import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.apache.http.entity.ContentType;
-import org.dom4j.Document;
-import org.dom4j.DocumentException;
-import org.dom4j.DocumentHelper;
-import org.dom4j.io.OutputFormat;
-import org.dom4j.io.XMLWriter;
 
 @SuppressWarnings("unchecked")
 public class XmlResponseHandler<T,P> extends AbstractResponseHandler<T, P> {
 
+    private static final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+    static { 
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    }
+
     private JAXBContext jaxbContext = null;
     private List<Class> extraJaxbClasses = new ArrayList<Class>(0);
     
@@ -43,38 +47,31 @@ public class XmlResponseHandler<T,P> extends AbstractResponseHandler<T, P> {
    
     @Override
     protected T deserialize(String content) {
+        return deserialize(new StringReader(content));
+    }
 
-        if( logger.isTraceEnabled() ) { 
-            try {
-                Document doc = DocumentHelper.parseText(content);  
-                StringWriter sw = new StringWriter();  
-                OutputFormat format = OutputFormat.createPrettyPrint();  
-                XMLWriter xw = new XMLWriter(sw, format);  
-                xw.write(doc);
-                String prettyContent = sw.toString();
-                logger.trace("XML  < |\n{}", prettyContent );
-            } catch( IOException ioe ) {
-                logger.error( "Unabel to write XML document: " + ioe.getMessage(), ioe );
-            } catch( DocumentException de ) {
-                logger.error( "Unabel to parse text: " + de.getMessage(), de );
-            }  
-        }
-
+    @Override
+    protected T deserialize(Reader reader) {
         JAXBContext jaxbContext = getJaxbContext();
-        
-        Unmarshaller unmarshaller = null;
-        try {
-            unmarshaller = jaxbContext.createUnmarshaller();
-        } catch( JAXBException jaxbe ) { 
-            throw new IllegalStateException("Unable to create unmarshaller", jaxbe);
-        }
+        Unmarshaller unmarshaller = JaxbContextCache.getUnmarshaller(jaxbContext);
 
-        ByteArrayInputStream contentStream = new ByteArrayInputStream(content.getBytes());
         Object jaxbObj = null;
+        XMLStreamReader xmlReader = null;
         try { 
-            jaxbObj = unmarshaller.unmarshal(contentStream);
+            xmlReader = xmlInputFactory.createXMLStreamReader(reader);
+            jaxbObj = unmarshaller.unmarshal(xmlReader);
+        } catch( XMLStreamException xmlse ) { 
+           throw new IllegalStateException("Unable to read XML stream", xmlse);
         } catch( JAXBException jaxbe ) { 
            throw new IllegalStateException("Unable to unmarshal reader", jaxbe);
+        } finally { 
+            if( xmlReader != null ) { 
+                try { 
+                    xmlReader.close();
+                } catch( XMLStreamException xmlse ) { 
+                    // no-op
+                }
+            }
         }
 
         Class returnedClass = jaxbObj.getClass();
@@ -83,6 +80,11 @@ public class XmlResponseHandler<T,P> extends AbstractResponseHandler<T, P> {
         return (T) jaxbObj;
     }
 
+    @Override
+    protected void traceContent(String content) {
+        logger.trace("XML  < |\n{}", content );
+    }
+
     private JAXBContext getJaxbContext() {
         if( jaxbContext == null ) { 
             Set<Class> types = new HashSet<Class>(2);
@@ -94,18 +96,13 @@ public class XmlResponseHandler<T,P> extends AbstractResponseHandler<T, P> {
                types.addAll(extraJaxbClasses);
             }
             
-            try { 
-                jaxbContext = JAXBContext.newInstance(types.toArray(new Class[types.size()]));
-            } catch( JAXBException jaxbe ) { 
-                throw new IllegalStateException("Unable to create JAXBContext", jaxbe);
-            } 
+            jaxbContext = JaxbContextCache.getContext(types.toArray(new Class[types.size()]));
         }
         return jaxbContext;
     }
    
     @Override
     public String serialize( Object entity ) {
-        JAXBContext jaxbContext;
         List<Class> typeList = new ArrayList<Class>();
         typeList.add(entity.getClass());
         
@@ -113,24 +110,16 @@ public class XmlResponseHandler<T,P> extends AbstractResponseHandler<T, P> {
             typeList.addAll(extraJaxbClasses);
         } 
         
-        try { 
-            jaxbContext = JAXBContext.newInstance(typeList.toArray(new Class[typeList.size()]));
-        } catch( JAXBException jaxbe ) { 
-            throw new IllegalStateException("Unable to create JAXBContext", jaxbe);
-        } 
-        
+        JAXBContext jaxbContext = JaxbContextCache.getContext(typeList.toArray(new Class[typeList.size()]));
         return serialize(entity, jaxbContext); 
     }
    
     public String serialize( Object entity, JAXBContext jaxbContext ) {
-        Marshaller marshaller = null;
+        Marshaller marshaller = JaxbContextCache.getMarshaller(jaxbContext);
         try {
-            marshaller = jaxbContext.createMarshaller();
-            if( logger.isTraceEnabled() ) { 
-                marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-            }
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, logger.isTraceEnabled());
         } catch( JAXBException jaxbe ) { 
-            throw new IllegalStateException("Unable to create unmarshaller", jaxbe);
+            throw new IllegalStateException("Unable to configure marshaller", jaxbe);
         }
         
         StringWriter xmlStrWriter = new StringWriter();
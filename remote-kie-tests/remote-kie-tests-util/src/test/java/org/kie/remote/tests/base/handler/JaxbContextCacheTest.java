@@ -0,0 +1,85 @@
+package org.kie.remote.tests.base.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.junit.Test;
+
+public class JaxbContextCacheTest {
+
+    @XmlRootElement
+    public static class First {
+        public String value;
+    }
+
+    @XmlRootElement
+    public static class Second {
+        public int number;
+    }
+
+    @XmlRootElement
+    public static class Third {
+        public String text;
+    }
+
+    @Test
+    public void contextIsSharedRegardlessOfClassOrder() {
+        JAXBContext ctx = JaxbContextCache.getContext(First.class, Second.class);
+        assertSame(ctx, JaxbContextCache.getContext(Second.class, First.class));
+        assertSame(ctx, JaxbContextCache.getContext(Second.class, First.class, Second.class));
+        assertNotSame(ctx, JaxbContextCache.getContext(First.class));
+    }
+
+    @Test
+    public void marshallersAreReusedPerThread() throws Exception {
+        final JAXBContext ctx = JaxbContextCache.getContext(First.class);
+        assertSame(JaxbContextCache.getMarshaller(ctx), JaxbContextCache.getMarshaller(ctx));
+        assertSame(JaxbContextCache.getUnmarshaller(ctx), JaxbContextCache.getUnmarshaller(ctx));
+
+        final Object [] other = new Object[1];
+        Thread thread = new Thread() {
+            public void run() {
+                other[0] = JaxbContextCache.getMarshaller(ctx);
+            }
+        };
+        thread.start();
+        thread.join();
+        assertNotSame(JaxbContextCache.getMarshaller(ctx), other[0]);
+    }
+
+    @Test
+    public void evictedContextsAreReleasedByThreads() {
+        JaxbContextCache.clear();
+        JaxbContextCache.setMaxSize(2);
+        try {
+            JAXBContext first = JaxbContextCache.getContext(First.class);
+            JaxbContextCache.getMarshaller(first);
+            JAXBContext second = JaxbContextCache.getContext(Second.class);
+            JaxbContextCache.getMarshaller(second);
+            assertEquals(2, JaxbContextCache.threadMarshallerCount());
+
+            // evicts the least recently used context (First)
+            JaxbContextCache.getContext(Third.class);
+            assertEquals(2, JaxbContextCache.size());
+            assertEquals(1, JaxbContextCache.threadMarshallerCount());
+            assertNotSame(first, JaxbContextCache.getContext(First.class));
+        } finally {
+            JaxbContextCache.setMaxSize(Integer.getInteger(JaxbContextCache.MAX_SIZE_PROPERTY, 64));
+            JaxbContextCache.clear();
+        }
+    }
+
+    @Test
+    public void serializedEntityRoundTrip() {
+        First first = new First();
+        first.value = "cached";
+        XmlResponseHandler<First, Object> handler = new XmlResponseHandler<First, Object>(First.class);
+        String xml = handler.serialize(first);
+        assertEquals("cached", handler.deserialize(xml).value);
+    }
+
+}
@@ -0,0 +1,36 @@
+package org.kie.remote.tests.base.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import org.codehaus.jackson.type.JavaType;
+import org.junit.Test;
+
+public class JsonMapperRegistryTest {
+
+    public static class Value {
+        public String name;
+    }
+
+    @Test
+    public void typesReadersAndWritersAreCached() {
+        JavaType listType = JsonMapperRegistry.getType(List.class, Value.class);
+        assertSame(listType, JsonMapperRegistry.getType(List.class, Value.class));
+        assertNotSame(listType, JsonMapperRegistry.getType(List.class));
+        assertSame(JsonMapperRegistry.getReader(listType), JsonMapperRegistry.getReader(listType));
+        assertSame(JsonMapperRegistry.getWriter(Value.class), JsonMapperRegistry.getWriter(Value.class));
+    }
+
+    @Test
+    public void handlerRoundTripsThroughSharedMapper() {
+        Value value = new Value();
+        value.name = "test";
+        JsonResponseHandler<Value, Object> handler = new JsonResponseHandler<Value, Object>(200, Value.class);
+        String json = handler.serialize(value);
+        assertEquals("test", handler.deserialize(json).name);
+    }
+
+}